@@ -0,0 +1,40 @@
+package com.example.taskmanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which threads serve requests. {@code spring.threads.virtual.enabled} switches Tomcat, the
+ * {@code applicationTaskExecutor} (MVC async, purge jobs) and the scheduler to virtual threads, but Spring Boot
+ * silently ignores it below Java 21, so a switched-on but inactive mode is logged as a warning.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final Environment environment;
+
+    public ThreadingConfig(Environment environment){
+        this.environment=environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreading(){
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if(Threading.VIRTUAL.isActive(environment)){
+            log.info("Requests and async work run on virtual threads");
+        } else if(requested){
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; running on platform threads",
+                    Runtime.version().feature());
+        } else {
+            log.info("Requests run on platform threads (server.tomcat.threads.max={})",
+                    environment.getProperty("server.tomcat.threads.max", "200"));
+        }
+    }
+}
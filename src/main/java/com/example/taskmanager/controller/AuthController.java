@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -19,14 +21,14 @@ public class AuthController {
         this.authService=authService;
     }
 
+    // Both complete asynchronously: the request thread is released while the password is hashed
     @PostMapping("/register")
-    public String register(@Valid @RequestBody RegisterRequest request){
-        authService.registerUser(request);
-        return "User registered successfully";
+    public CompletableFuture<String> register(@Valid @RequestBody RegisterRequest request){
+        return authService.registerUser(request).thenApply(done -> "User registered successfully");
     }
 
     @PostMapping("/login")
-    public String login(@Valid @RequestBody LoginRequest request){
+    public CompletableFuture<String> login(@Valid @RequestBody LoginRequest request){
         return authService.login(request);
     }
 }
@@ -0,0 +1,76 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.repository.ReactiveTaskRepository;
+import com.example.taskmanager.security.AuthenticatedUser;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only twin of the task listing endpoints over R2DBC, next to {@link TaskController} so traffic can be moved
+ * over gradually. The request thread is released while the query runs; lists are streamed as NDJSON, one task per
+ * line, as rows arrive. Pages are {@code page}/{@code size}, ordered by id.
+ */
+@RestController
+@RequestMapping("/api/reactive/tasks")
+public class ReactiveTaskController {
+
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+
+    public ReactiveTaskController(ReactiveTaskRepository reactiveTaskRepository){
+        this.reactiveTaskRepository=reactiveTaskRepository;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskSummary> getAllTasks(@AuthenticationPrincipal AuthenticatedUser user,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size){
+        if(user == null || user.id() == null){
+            throw new RuntimeException("User not found");
+        }
+        checkPage(page, size);
+        return reactiveTaskRepository.findByUserId(user.id(), size, (long) page * size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TaskSummary> getTaskById(@PathVariable Long id){
+        return reactiveTaskRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found with id: " + id)));
+    }
+
+    @GetMapping(value = "/due-after", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskSummary> findTasksByDueDateAfter(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size){
+        checkPage(page, size);
+        return reactiveTaskRepository.findByDueDateAfter(dueDate, size, (long) page * size);
+    }
+
+    @GetMapping(value = "/due-between", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskSummary> findTasksByDueDateBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size){
+        checkPage(page, size);
+        return reactiveTaskRepository.findByDueDateBetween(start, end, size, (long) page * size);
+    }
+
+    private static void checkPage(int page, int size){
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE){
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
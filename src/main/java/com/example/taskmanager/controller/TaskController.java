@@ -1,50 +1,137 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.PurgeJobStatus;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.pagination.CursorPage;
+import com.example.taskmanager.pagination.CursorRequest;
+import com.example.taskmanager.query.TaskQueryPlan;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.service.TaskExportService;
+import com.example.taskmanager.service.TaskImportService;
+import com.example.taskmanager.service.TaskListVersionService;
+import com.example.taskmanager.service.TaskPurgeService;
+import com.example.taskmanager.service.TaskSearchService;
 import com.example.taskmanager.service.TaskService;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
 import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final String QUERY_PATH_HEADER = "X-Query-Path";
+
+    // Clients may keep responses but must revalidate them with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TaskService taskService;
+    private final TaskSearchService taskSearchService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskPurgeService taskPurgeService;
+    private final TaskListVersionService taskListVersionService;
+    private final boolean countTotalByDefault;
 
-    public TaskController(TaskService taskService){
+    public TaskController(TaskService taskService, TaskSearchService taskSearchService, TaskExportService taskExportService,
+                          TaskImportService taskImportService, TaskPurgeService taskPurgeService,
+                          TaskListVersionService taskListVersionService,
+                          @Value("${taskmanager.pagination.count-total:true}") boolean countTotalByDefault){
         this.taskService=taskService;
+        this.taskSearchService=taskSearchService;
+        this.taskExportService=taskExportService;
+        this.taskImportService=taskImportService;
+        this.taskPurgeService=taskPurgeService;
+        this.taskListVersionService=taskListVersionService;
+        this.countTotalByDefault=countTotalByDefault;
     }
 
     @GetMapping("/all")
-    public Page<Task> getAllTasks(Principal principal, Pageable pageable){
-        String username = principal.getName();
-        return taskService.getTasksForUser(username, pageable);
+    public ResponseEntity<Slice<TaskSummary>> getAllTasks(@AuthenticationPrincipal AuthenticatedUser user, Pageable pageable,
+                                                          @RequestParam(required = false) Boolean count, WebRequest request){
+        Long userId = userId(user);
+        return conditional(request, taskListVersionService.etag(userId),
+                () -> taskService.getTasksForUser(userId, pageable, withTotal(count)));
+    }
+
+    /**
+     * Keyset pagination, selected with {@code cursor=true}: the first page has no {@code after}, the next ones
+     * pass the previous page's {@code nextCursor} as {@code after}.
+     */
+    @GetMapping(value = "/all", params = "cursor=true")
+    public ResponseEntity<CursorPage<TaskSummary>> getAllTasksAfter(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest request){
+        Long userId = userId(user);
+        return conditional(request, taskListVersionService.etag(userId),
+                () -> taskService.getTasksForUserAfter(userId, CursorRequest.of(after, sortBy, sortDir, size)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @AuthenticationPrincipal AuthenticatedUser user){
+        TaskExportService.Format exportFormat = TaskExportService.Format.from(format);
+        Long userId = userId(user);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.extension() + "\"")
+                .body(out -> taskExportService.export(userId, exportFormat, out));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public TaskImportResult importTasks(InputStream body, @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+        return taskImportService.importTasks(body, userId(user));
     }
 
     @GetMapping("/{id}")
-    public Task getTaskById(@PathVariable Long id){
-        return taskService.getTaskById(id);
+    public ResponseEntity<TaskSummary> getTaskById(@PathVariable Long id, WebRequest request){
+        TaskSummary task = taskService.getTaskSummary(id);
+        return conditional(request, "\"" + task.id() + "-" + task.version() + "\"", () -> task);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Task createTask(@Valid @RequestBody Task task, Principal principal){
-        String username = principal.getName();
-        return taskService.createTask(task, username);
+    public TaskSummary createTask(@Valid @RequestBody Task task, @AuthenticationPrincipal AuthenticatedUser user){
+        return TaskSummary.from(taskService.createTask(task, userId(user)));
     }
 
     @PutMapping("/{id}")
-    public Task updateTask(@PathVariable Long id, @Valid @RequestBody Task task){
-        return taskService.updateTask(id, task);
+    public TaskSummary updateTask(@PathVariable Long id, @Valid @RequestBody Task task){
+        return TaskSummary.from(taskService.updateTask(id, task));
+    }
+
+    @PatchMapping("/{id}")
+    public TaskSummary patchTask(@PathVariable Long id, @Valid @RequestBody TaskPatch patch){
+        return taskService.patchTask(id, patch);
     }
 
     @DeleteMapping("/{id}")
@@ -54,55 +141,138 @@ public class TaskController {
     }
 
     @GetMapping
-    public Page<Task> getTasks(
+    public ResponseEntity<Slice<TaskSummary>> getTasks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
-            @RequestParam(required = false) String status,
-            @RequestParam(required = false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE)LocalDate dueDate,
-            @RequestParam(required = false) String search){
+            @RequestParam(required = false) Boolean count,
+            TaskFilter filter){
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page,size, sort);
-        return taskService.getTasks(status, dueDate, search, pageable);
+        TaskQueryPlan plan = taskService.planTasks(filter);
+        return ResponseEntity.ok()
+                .header(QUERY_PATH_HEADER, plan.describe())
+                .body(taskService.getTasks(plan, pageable, withTotal(count)));
+    }
+
+    @PatchMapping
+    public long updateStatusWhere(
+            @RequestParam TaskStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore,
+            @RequestParam(required = false) List<TaskStatus> currentStatus,
+            @AuthenticationPrincipal AuthenticatedUser user){
+        return taskService.updateStatusWhere(userId(user), status, dueBefore, currentStatus);
+    }
+
+    @DeleteMapping
+    public long deleteWhere(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore,
+            @RequestParam(required = false) List<TaskStatus> status,
+            @AuthenticationPrincipal AuthenticatedUser user){
+        return taskService.deleteWhere(userId(user), dueBefore, status);
+    }
+
+    /** Keyset pagination over the filtered tasks, selected with {@code cursor=true} as on {@code /all}. */
+    @GetMapping(params = "cursor=true")
+    public ResponseEntity<CursorPage<TaskSummary>> getTasksAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            TaskFilter filter){
+        TaskQueryPlan plan = taskService.planTasks(filter);
+        return ResponseEntity.ok()
+                .header(QUERY_PATH_HEADER, plan.describe())
+                .body(taskService.getTasksAfter(plan, CursorRequest.of(after, sortBy, sortDir, size)));
     }
 
     @GetMapping("/status")
-    public long countTasksByStatus(@RequestParam String status){
-        return taskService.countTasksByStatus(status);
+    public long countTasksByStatus(@RequestParam TaskStatus status, @AuthenticationPrincipal AuthenticatedUser user){
+        return taskService.countTasksByStatus(status, userId(user));
     }
 
     @GetMapping("/due-after")
-    public Page<Task> findTasksByDueDateAfter(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate, Pageable pageable){
-        return taskService.findTasksByDueDateAfter(dueDate, pageable);
+    public Slice<TaskSummary> findTasksByDueDateAfter(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate, Pageable pageable,
+                                               @RequestParam(required = false) Boolean count){
+        return taskService.findTasksByDueDateAfter(dueDate, pageable, withTotal(count));
     }
 
     @GetMapping("/due-between")
-    public Page<Task> findTasksByDueDateBetween(
+    public Slice<TaskSummary> findTasksByDueDateBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
-            Pageable pageable){
-        return taskService.findTasksByDueDateBetween(start, end, pageable);
+            Pageable pageable,
+            @RequestParam(required = false) Boolean count){
+        return taskService.findTasksByDueDateBetween(start, end, pageable, withTotal(count));
     }
 
     @DeleteMapping("/due-before")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteByDueDateBefore(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate){
-        taskService.deleteByDueDateBefore(dueDate);
+    public ResponseEntity<PurgeJobStatus> deleteByDueDateBefore(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+                                                                Principal principal){
+        PurgeJobStatus job = taskPurgeService.start(dueDate, principal.getName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tasks/purge-jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/purge-jobs/{jobId}")
+    public ResponseEntity<PurgeJobStatus> getPurgeJob(@PathVariable String jobId, Principal principal){
+        return ResponseEntity.of(taskPurgeService.find(jobId, principal.getName()));
+    }
+
+    @DeleteMapping("/purge-jobs/{jobId}")
+    public ResponseEntity<PurgeJobStatus> cancelPurgeJob(@PathVariable String jobId, Principal principal){
+        return ResponseEntity.of(taskPurgeService.cancel(jobId, principal.getName()));
+    }
+
+    @GetMapping("/search")
+    public Slice<TaskSummary> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean count){
+        return taskSearchService.search(q, PageRequest.of(page, size), withTotal(count));
     }
 
     @GetMapping("/search/title")
-    public Page<Task> findByTitleContainingIgnoreCase(@RequestParam String keyword, Pageable pageable){
-        return taskService.findByTitleContainingIgnoreCase(keyword, pageable);
+    public Slice<TaskSummary> findByTitleContainingIgnoreCase(@RequestParam String keyword, Pageable pageable,
+                                                       @RequestParam(required = false) Boolean count){
+        return taskService.findByTitleContainingIgnoreCase(keyword, pageable, withTotal(count));
     }
 
     @GetMapping("/search/description")
-    public Page<Task> findByDescriptionContainingIgnoreCase(@RequestParam String keyword, Pageable pageable){
-        return taskService.findByDescriptionContainingIgnoreCase(keyword, pageable);
+    public Slice<TaskSummary> findByDescriptionContainingIgnoreCase(@RequestParam String keyword, Pageable pageable,
+                                                             @RequestParam(required = false) Boolean count){
+        return taskService.findByDescriptionContainingIgnoreCase(keyword, pageable, withTotal(count));
     }
 
     @PatchMapping("/{id}/status")
-    public Task updateStatus(@PathVariable Long id, @RequestParam String status){
-        return taskService.updateStatus(id, status);
+    public TaskSummary updateStatus(@PathVariable Long id, @RequestParam TaskStatus status,
+                                    @RequestParam(required = false) Long version){
+        return taskService.updateStatus(id, status, version);
+    }
+
+    /**
+     * Answers 304 without building the body when the client already holds {@code etag}.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body){
+        // checkNotModified has already set the 304 status and the ETag header
+        if(request.checkNotModified(etag)){
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    // Null only when no token authenticated the request, e.g. with security disabled
+    private static Long userId(AuthenticatedUser user){
+        if(user == null || user.id() == null){
+            throw new RuntimeException("User not found");
+        }
+        return user.id();
+    }
+
+    private boolean withTotal(Boolean count){
+        return count != null ? count : countTotalByDefault;
     }
 }
@@ -0,0 +1,282 @@
+package com.example.taskmanager.dataset;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-loads a deterministic {@link DatasetSpec} for benchmarks and query-plan work: users, tasks and their status
+ * counters go in through COPY in one transaction, so a failed load leaves nothing behind.
+ * <p>
+ * Ids are reserved from the sequences first, which keeps the load safe next to a running application: user ids
+ * come from the identity sequence, and task ids are a block of {@code tasks_seq} that Hibernate's pooled-lo
+ * optimizer will not hand out. The monthly partitions covering the due dates are created beforehand, so no task
+ * lands in {@code tasks_default}. Into an empty {@code tasks}, its indexes are dropped and rebuilt after the copy.
+ * Generated users have no list-version row yet, which reads as version 0.
+ * <p>
+ * A running application does not see the new tasks in its trigram index until restarted; the {@code dataset}
+ * profile ({@link DatasetLoader}) loads before the index is built.
+ */
+public class DatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int BCRYPT_STRENGTH = 10;
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+
+    private final DataSource dataSource;
+
+    public DatasetGenerator(DataSource dataSource){
+        this.dataSource=dataSource;
+    }
+
+    public Dataset generate(DatasetSpec spec) throws SQLException, IOException {
+        long start = System.nanoTime();
+        DatasetRows rows = new DatasetRows(spec);
+        String passwordHash = BCrypt.hashpw(spec.password(), BCrypt.gensalt(BCRYPT_STRENGTH, seededRandom(spec.seed())));
+        try(Connection connection = dataSource.getConnection()){
+            connection.setAutoCommit(true);
+            int partitions = createPartitions(connection, spec);
+            long firstUserId = reserveIds(connection, serialSequence(connection, "users"), spec.users());
+            long firstTaskId = spec.tasks() == 0 ? 0 : reserveIds(connection, "tasks_seq", spec.tasks());
+
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            connection.setAutoCommit(false);
+            try {
+                copy(copy, "COPY users (id, username, password) FROM STDIN",
+                        out -> rows.writeUsers(firstUserId, passwordHash, out));
+                List<String> deferredIndexes = isEmpty(connection, "tasks") ? dropIndexes(connection, "tasks") : List.of();
+                copy(copy, "COPY tasks (id, user_id, title, description, status, due_date) FROM STDIN",
+                        out -> rows.writeTasks(firstUserId, firstTaskId, out));
+                createIndexes(connection, deferredIndexes);
+                copy(copy, "COPY task_status_counts (user_id, status, task_count) FROM STDIN",
+                        out -> rows.writeStatusCounts(firstUserId, out));
+                connection.commit();
+            } catch(SQLException | IOException | RuntimeException e){
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            try(Statement statement = connection.createStatement()){
+                statement.execute("ANALYZE users, tasks, task_status_counts");
+            }
+
+            Dataset dataset = new Dataset(firstUserId, spec.users(), firstTaskId, spec.tasks(), partitions,
+                    Duration.ofNanos(System.nanoTime() - start));
+            log.info("Loaded {} users (ids from {}) and {} tasks (ids from {}) in {} ms, {} new partitions; "
+                            + "seed {}, due dates {} to {}",
+                    dataset.users(), dataset.firstUserId(), dataset.tasks(), dataset.firstTaskId(),
+                    dataset.elapsed().toMillis(), partitions, spec.seed(), spec.dueFrom(), spec.dueTo());
+            return dataset;
+        }
+    }
+
+    /**
+     * Reserves {@code count} consecutive values of a sequence and returns the first. For {@code tasks_seq} the
+     * first value is a whole pooled-lo block of its own, and the sequence is moved past the reserved range.
+     * <p>
+     * nextval then setval is two steps, and a nextval from the application in between would land inside the
+     * range. ALTER SEQUENCE locks the sequence against nextval until commit, so the reservation runs in its own
+     * short transaction behind it; NO CYCLE is what both sequences already have and changes nothing else.
+     */
+    private static long reserveIds(Connection connection, String sequence, long count) throws SQLException {
+        connection.setAutoCommit(false);
+        try(Statement statement = connection.createStatement()){
+            statement.execute("ALTER SEQUENCE " + sequence + " NO CYCLE");
+            long firstId;
+            try(ResultSet first = statement.executeQuery("SELECT nextval('" + sequence + "')")){
+                first.next();
+                firstId = first.getLong(1);
+            }
+            try(PreparedStatement advance = connection.prepareStatement("SELECT setval('" + sequence + "', ?, false)")){
+                advance.setLong(1, firstId + count);
+                advance.execute();
+            }
+            connection.commit();
+            return firstId;
+        } catch(SQLException e){
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String serialSequence(Connection connection, String table) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement("SELECT pg_get_serial_sequence(?, 'id')")){
+            statement.setString(1, table);
+            try(ResultSet sequence = statement.executeQuery()){
+                sequence.next();
+                return sequence.getString(1);
+            }
+        }
+    }
+
+    private static boolean isEmpty(Connection connection, String table) throws SQLException {
+        try(Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery("SELECT NOT EXISTS (SELECT 1 FROM " + table + ")")){
+            result.next();
+            return result.getBoolean(1);
+        }
+    }
+
+    /**
+     * Into an empty table, building the indexes once after the load is about twice as fast as maintaining them
+     * row by row. Drops the indexes of {@code table} (on a partitioned table, with those of every partition) and
+     * returns their definitions. The table stays locked until the transaction ends.
+     */
+    private static List<String> dropIndexes(Connection connection, String table) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try(PreparedStatement statement = connection.prepareStatement(
+                "SELECT indexname, indexdef FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ?")){
+            statement.setString(1, table);
+            try(ResultSet indexes = statement.executeQuery()){
+                while(indexes.next()){
+                    names.add(indexes.getString("indexname"));
+                    // Partitioned indexes read back as ON ONLY, which would not cascade to the partitions
+                    definitions.add(indexes.getString("indexdef").replaceFirst(" ON ONLY ", " ON "));
+                }
+            }
+        }
+        try(Statement statement = connection.createStatement()){
+            for(String name : names){
+                statement.execute("DROP INDEX \"" + name.replace("\"", "\"\"") + "\"");
+            }
+        }
+        return definitions;
+    }
+
+    private static void createIndexes(Connection connection, List<String> definitions) throws SQLException {
+        if(definitions.isEmpty()){
+            return;
+        }
+        try(Statement statement = connection.createStatement()){
+            statement.execute("SET LOCAL maintenance_work_mem = '256MB'");
+            for(String definition : definitions){
+                statement.execute(definition);
+            }
+        }
+    }
+
+    private static int createPartitions(Connection connection, DatasetSpec spec) throws SQLException {
+        int created = 0;
+        try(PreparedStatement statement = connection.prepareStatement("SELECT create_tasks_partition(?)")){
+            for(YearMonth month = YearMonth.from(spec.dueFrom()); !month.isAfter(YearMonth.from(spec.dueTo())); month = month.plusMonths(1)){
+                statement.setDate(1, Date.valueOf(month.atDay(1)));
+                try(ResultSet result = statement.executeQuery()){
+                    result.next();
+                    if(result.getBoolean(1)){
+                        created++;
+                    }
+                }
+            }
+        }
+        return created;
+    }
+
+    private static void copy(CopyManager copy, String sql, RowWriter rows) throws SQLException, IOException {
+        try(Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(copy.copyIn(sql), COPY_BUFFER_SIZE), StandardCharsets.UTF_8), COPY_BUFFER_SIZE)){
+            rows.write(out);
+        }
+    }
+
+    // The same seed gives the same salt, hence the same password column
+    private static SecureRandom seededRandom(long seed){
+        try {
+            SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            random.setSeed(seed);
+            return random;
+        } catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Command line entry point. Arguments are {@code key=value} pairs: {@code url} (required), {@code username},
+     * {@code password}, {@code users}, {@code tasks}, {@code seed}, {@code task-skew}, {@code status-skew},
+     * {@code anchor}, {@code due-from}, {@code due-to}, {@code prefix}, {@code user-password}. Due dates default to
+     * three years before {@code anchor} (today unless given) through one year after it; pass the anchor that a run
+     * logged to reproduce its rows. The schema is migrated first.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for(String arg : args){
+            // Maven passes -Ddataset.args as one argument
+            for(String option : arg.trim().split("\\s+")){
+                if(option.isEmpty()){
+                    continue;
+                }
+                int equals = option.indexOf('=');
+                if(equals < 1){
+                    throw new IllegalArgumentException("Expected key=value, got " + option);
+                }
+                options.put(option.substring(0, equals), option.substring(equals + 1));
+            }
+        }
+        String url = options.get("url");
+        if(url == null){
+            throw new IllegalArgumentException("url=jdbc:postgresql://host:port/database is required");
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                options.getOrDefault("username", "user"), options.getOrDefault("password", "password"));
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        LocalDate anchor = options.containsKey("anchor") ? LocalDate.parse(options.get("anchor")) : LocalDate.now();
+        DatasetSpec defaults = DatasetSpec.of(100_000, 2_000_000, 42, anchor);
+        DatasetSpec spec = new DatasetSpec(
+                Integer.parseInt(options.getOrDefault("users", String.valueOf(defaults.users()))),
+                Long.parseLong(options.getOrDefault("tasks", String.valueOf(defaults.tasks()))),
+                Double.parseDouble(options.getOrDefault("task-skew", String.valueOf(defaults.taskSkew()))),
+                Double.parseDouble(options.getOrDefault("status-skew", String.valueOf(defaults.statusSkew()))),
+                LocalDate.parse(options.getOrDefault("due-from", defaults.dueFrom().toString())),
+                LocalDate.parse(options.getOrDefault("due-to", defaults.dueTo().toString())),
+                Long.parseLong(options.getOrDefault("seed", String.valueOf(defaults.seed()))),
+                options.getOrDefault("prefix", defaults.usernamePrefix()),
+                options.getOrDefault("user-password", defaults.password()));
+        new DatasetGenerator(dataSource).generate(spec);
+    }
+
+    public record Dataset(long firstUserId, int users, long firstTaskId, long tasks, int partitionsCreated, Duration elapsed) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer out) throws IOException;
+    }
+}
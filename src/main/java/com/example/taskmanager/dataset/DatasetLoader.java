@@ -0,0 +1,58 @@
+package com.example.taskmanager.dataset;
+
+import com.example.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * With the {@code dataset} profile, loads the configured dataset at startup, before the application reports
+ * ready (and so before the trigram index is built). Skipped when the first generated username already exists,
+ * so restarting with the profile does not load the same dataset twice.
+ */
+@Component
+@Profile("dataset")
+public class DatasetLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetLoader.class);
+
+    private final DatasetGenerator datasetGenerator;
+    private final UserRepository userRepository;
+    private final DatasetSpec spec;
+
+    public DatasetLoader(DataSource dataSource, UserRepository userRepository,
+                         @Value("${taskmanager.dataset.users:100000}") int users,
+                         @Value("${taskmanager.dataset.tasks:2000000}") long tasks,
+                         @Value("${taskmanager.dataset.task-skew:1.0}") double taskSkew,
+                         @Value("${taskmanager.dataset.status-skew:1.0}") double statusSkew,
+                         @Value("${taskmanager.dataset.anchor:}") String anchor,
+                         @Value("${taskmanager.dataset.due-from:}") String dueFrom,
+                         @Value("${taskmanager.dataset.due-to:}") String dueTo,
+                         @Value("${taskmanager.dataset.seed:42}") long seed,
+                         @Value("${taskmanager.dataset.username-prefix:dataset-user-}") String usernamePrefix,
+                         @Value("${taskmanager.dataset.password:password}") String password){
+        this.datasetGenerator=new DatasetGenerator(dataSource);
+        this.userRepository=userRepository;
+        LocalDate anchorDate = anchor.isBlank() ? LocalDate.now() : LocalDate.parse(anchor);
+        this.spec=new DatasetSpec(users, tasks, taskSkew, statusSkew,
+                dueFrom.isBlank() ? DatasetSpec.defaultDueFrom(anchorDate) : LocalDate.parse(dueFrom),
+                dueTo.isBlank() ? DatasetSpec.defaultDueTo(anchorDate) : LocalDate.parse(dueTo),
+                seed, usernamePrefix, password);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if(userRepository.existsByUsername(spec.usernamePrefix() + 0)){
+            log.info("Dataset {}* already loaded, skipping", spec.usernamePrefix());
+            return;
+        }
+        datasetGenerator.generate(spec);
+    }
+}
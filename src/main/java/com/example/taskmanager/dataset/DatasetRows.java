@@ -0,0 +1,161 @@
+package com.example.taskmanager.dataset;
+
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * The rows of a {@link DatasetSpec}, written in PostgreSQL's COPY text format. Users, tasks and status counters
+ * come from separate random streams derived from the seed, so each is reproducible on its own.
+ */
+final class DatasetRows {
+
+    // Zipf ranks: most tasks are done, fewer waiting, fewest in progress
+    private static final TaskStatus[] STATUS_BY_RANK = {TaskStatus.DONE, TaskStatus.TO_BE_DONE, TaskStatus.IN_PROGRESS};
+
+    private static final String[] VERBS = {"Review", "Write", "Fix", "Plan", "Update", "Test", "Deploy", "Refactor",
+            "Document", "Prepare", "Schedule", "Clean up", "Migrate", "Design", "Check", "Call"};
+    private static final String[] NOUNS = {"report", "invoice", "release", "meeting notes", "dashboard", "backlog",
+            "budget", "onboarding", "roadmap", "contract", "newsletter", "database", "login page", "test suite",
+            "presentation", "customer feedback"};
+    private static final String[] CONTEXTS = {"before the deadline", "with the team", "for the next sprint",
+            "for the quarterly review", "after the demo", "with finance", "for the client", "on the staging server"};
+
+    private final DatasetSpec spec;
+    private final int[] taskCounts;
+    private long[][] statusCounts;
+
+    DatasetRows(DatasetSpec spec){
+        this.spec=spec;
+        this.taskCounts=zipfTaskCounts(spec, new SplittableRandom(spec.seed()));
+    }
+
+    int taskCount(int user){
+        return taskCounts[user];
+    }
+
+    /**
+     * {@code id, username, password} rows for user ids {@code firstUserId} onwards.
+     */
+    void writeUsers(long firstUserId, String passwordHash, Appendable out) throws IOException {
+        for(int user = 0; user < spec.users(); user++){
+            out.append(Long.toString(firstUserId + user)).append('\t')
+                    .append(escape(spec.usernamePrefix())).append(Integer.toString(user)).append('\t')
+                    .append(passwordHash).append('\n');
+        }
+    }
+
+    /**
+     * {@code id, user_id, title, description, status, due_date} rows with consecutive ids from {@code firstTaskId},
+     * grouped by user. Also tallies the status counters for {@link #writeStatusCounts}.
+     */
+    void writeTasks(long firstUserId, long firstTaskId, Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(spec.seed() * 31 + 1);
+        double[] statusCumulative = zipfCumulative(STATUS_BY_RANK.length, spec.statusSkew());
+        long dueDays = ChronoUnit.DAYS.between(spec.dueFrom(), spec.dueTo()) + 1;
+        long[][] counts = new long[spec.users()][TaskStatus.values().length];
+        long id = firstTaskId;
+        for(int user = 0; user < spec.users(); user++){
+            String userId = Long.toString(firstUserId + user);
+            for(int i = 0; i < taskCounts[user]; i++){
+                TaskStatus status = STATUS_BY_RANK[pick(statusCumulative, random.nextDouble())];
+                LocalDate dueDate = spec.dueFrom().plusDays(random.nextLong(dueDays));
+                counts[user][status.ordinal()]++;
+                out.append(Long.toString(id++)).append('\t')
+                        .append(userId).append('\t')
+                        .append(VERBS[random.nextInt(VERBS.length)]).append(' ')
+                        .append(NOUNS[random.nextInt(NOUNS.length)]).append(" #").append(Integer.toString(i + 1)).append('\t')
+                        .append(VERBS[random.nextInt(VERBS.length)]).append(" the ")
+                        .append(NOUNS[random.nextInt(NOUNS.length)]).append(' ')
+                        .append(CONTEXTS[random.nextInt(CONTEXTS.length)]).append('\t')
+                        .append(Short.toString(status.getCode())).append('\t')
+                        .append(dueDate.toString()).append('\n');
+            }
+        }
+        statusCounts = counts;
+    }
+
+    /**
+     * {@code user_id, status, task_count} rows matching the tasks written by {@link #writeTasks}.
+     */
+    void writeStatusCounts(long firstUserId, Appendable out) throws IOException {
+        if(statusCounts == null){
+            throw new IllegalStateException("Status counts are tallied while writing the tasks");
+        }
+        for(int user = 0; user < spec.users(); user++){
+            for(TaskStatus status : TaskStatus.values()){
+                long count = statusCounts[user][status.ordinal()];
+                if(count > 0){
+                    out.append(Long.toString(firstUserId + user)).append('\t')
+                            .append(Short.toString(status.getCode())).append('\t')
+                            .append(Long.toString(count)).append('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Each user gets a random Zipf rank, and the tasks are shared in proportion to 1/rank^skew. Rounding leftovers
+     * go to the top ranks, so the counts add up to exactly {@code spec.tasks()}.
+     */
+    private static int[] zipfTaskCounts(DatasetSpec spec, SplittableRandom random){
+        int users = spec.users();
+        int[] rankOf = new int[users];
+        for(int user = 0; user < users; user++){
+            rankOf[user] = user;
+        }
+        for(int i = users - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int swap = rankOf[i];
+            rankOf[i] = rankOf[j];
+            rankOf[j] = swap;
+        }
+        double norm = 0;
+        for(int rank = 1; rank <= users; rank++){
+            norm += Math.pow(rank, -spec.taskSkew());
+        }
+        int[] counts = new int[users];
+        long assigned = 0;
+        for(int user = 0; user < users; user++){
+            counts[user] = (int) (spec.tasks() * Math.pow(rankOf[user] + 1, -spec.taskSkew()) / norm);
+            assigned += counts[user];
+        }
+        long leftover = spec.tasks() - assigned;
+        for(int user = 0; user < users; user++){
+            if(rankOf[user] < leftover){
+                counts[user]++;
+            }
+        }
+        return counts;
+    }
+
+    private static double[] zipfCumulative(int ranks, double skew){
+        double[] cumulative = new double[ranks];
+        double total = 0;
+        for(int rank = 1; rank <= ranks; rank++){
+            total += Math.pow(rank, -skew);
+            cumulative[rank - 1] = total;
+        }
+        for(int i = 0; i < ranks; i++){
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value){
+        for(int i = 0; i < cumulative.length - 1; i++){
+            if(value < cumulative[i]){
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    // COPY text format: backslash, tab and newlines would otherwise end a value or a row
+    private static String escape(String value){
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskmanager.dataset;
+
+import java.time.LocalDate;
+
+/**
+ * What {@link DatasetGenerator} loads. The same spec and seed always produce the same rows; the due dates are part
+ * of the spec, so a spec built with {@link #of} from the same anchor date is reproducible on any day.
+ *
+ * @param users          users to create, named {@code usernamePrefix + index}
+ * @param tasks          tasks to spread over them
+ * @param taskSkew       Zipf exponent of tasks per user: 0 gives everyone the same count, 1 gives the busiest user
+ *                       about {@code tasks / ln(users)}
+ * @param statusSkew     Zipf exponent over DONE, TO_BE_DONE, IN_PROGRESS, most frequent first
+ * @param dueFrom        earliest due date, inclusive
+ * @param dueTo          latest due date, inclusive; due dates are uniform in between
+ * @param seed           seed of every random choice, the password salt included
+ * @param usernamePrefix prefix of the generated usernames, which must not be taken yet
+ * @param password       password of every generated user
+ */
+public record DatasetSpec(int users, long tasks, double taskSkew, double statusSkew, LocalDate dueFrom, LocalDate dueTo,
+                          long seed, String usernamePrefix, String password) {
+
+    // Default due dates around the anchor date, so that the dataset has both overdue and upcoming tasks
+    private static final int DEFAULT_YEARS_BEFORE_ANCHOR = 3;
+    private static final int DEFAULT_YEARS_AFTER_ANCHOR = 1;
+
+    public DatasetSpec {
+        if(users < 1){
+            throw new IllegalArgumentException("A dataset needs at least one user");
+        }
+        if(tasks < 0){
+            throw new IllegalArgumentException("Task count cannot be negative");
+        }
+        if(taskSkew < 0 || statusSkew < 0){
+            throw new IllegalArgumentException("Skew exponents cannot be negative");
+        }
+        if(dueTo.isBefore(dueFrom)){
+            throw new IllegalArgumentException("dueTo cannot be before dueFrom");
+        }
+        if(usernamePrefix == null || usernamePrefix.isBlank()){
+            throw new IllegalArgumentException("Username prefix cannot be empty");
+        }
+        if(password == null || password.isEmpty()){
+            throw new IllegalArgumentException("Password cannot be empty");
+        }
+    }
+
+    /**
+     * {@code users} users sharing {@code tasks} tasks with a Zipf(1) skew, statuses Zipf(1), due dates from three
+     * years before {@code anchor} to one year after it, password {@code password}.
+     */
+    public static DatasetSpec of(int users, long tasks, long seed, LocalDate anchor){
+        return new DatasetSpec(users, tasks, 1.0, 1.0, defaultDueFrom(anchor), defaultDueTo(anchor), seed,
+                "dataset-user-", "password");
+    }
+
+    public static LocalDate defaultDueFrom(LocalDate anchor){
+        return anchor.minusYears(DEFAULT_YEARS_BEFORE_ANCHOR);
+    }
+
+    public static LocalDate defaultDueTo(LocalDate anchor){
+        return anchor.plusYears(DEFAULT_YEARS_AFTER_ANCHOR);
+    }
+
+    public DatasetSpec withUsernamePrefix(String usernamePrefix){
+        return new DatasetSpec(users, tasks, taskSkew, statusSkew, dueFrom, dueTo, seed, usernamePrefix, password);
+    }
+}
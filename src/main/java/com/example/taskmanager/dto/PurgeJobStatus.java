@@ -0,0 +1,12 @@
+package com.example.taskmanager.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record PurgeJobStatus(String id, LocalDate dueBefore, State state, long deletedTasks, int percentDone,
+                             Instant startedAt, Instant finishedAt, String error) {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+public record TaskImportResult(long imported, long rejected, long elapsedMillis, double rowsPerSecond,
+                               List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskStatus;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Body of {@code PATCH /api/tasks/{id}}: null fields are left unchanged. {@code version} is the one the client
+ * last read; the patch is refused with 409 if the task has changed since.
+ */
+public record TaskPatch(
+        @Pattern(regexp = "(?s).*\\S.*", message = "Title cannot be empty")
+        @Size(max=100, message = "Title must be at most 100 characters")
+        String title,
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "Description cannot be empty")
+        @Size(max=500, message = "Description must be at most 500 characters")
+        String description,
+
+        TaskStatus status,
+
+        @FutureOrPresent(message="Due date cannot be in the past")
+        LocalDate dueDate,
+
+        @NotNull(message = "Version is required")
+        Long version) {
+}
@@ -0,0 +1,18 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Read model for task responses: only the task's own columns, so the owner is never loaded or serialized.
+ */
+public record TaskSummary(Long id, String title, String description, TaskStatus status, LocalDate dueDate,
+                          Long version) {
+
+    public static TaskSummary from(Task task){
+        return new TaskSummary(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getDueDate(),
+                task.getVersion());
+    }
+}
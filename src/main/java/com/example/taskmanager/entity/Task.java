@@ -5,6 +5,8 @@ import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -13,10 +15,15 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name="tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
 public class Task {
 
+    // Unique through the task_ids registry rather than a primary key, which the due-date partitioning rules out;
+    // a lookup by id alone probes every partition (see V10 migration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch=FetchType.LAZY)
@@ -31,8 +38,11 @@ public class Task {
     @Size(max=500, message = "Description must be at most 500 characters")
     private String description;
 
-    private String status;
+    private TaskStatus status;
 
     @FutureOrPresent(message="Due date cannot be in the past")
     private LocalDate dueDate;
+
+    @Version
+    private Long version;
 }
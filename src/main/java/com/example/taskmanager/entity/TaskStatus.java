@@ -0,0 +1,45 @@
+package com.example.taskmanager.entity;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task lifecycle. Persisted as the fixed {@link #getCode() code} in a SMALLINT column, never by ordinal,
+ * so constants can be reordered or added without rewriting rows.
+ */
+public enum TaskStatus {
+
+    TO_BE_DONE((short) 0),
+    IN_PROGRESS((short) 1),
+    DONE((short) 2);
+
+    private final short code;
+
+    TaskStatus(short code){
+        this.code=code;
+    }
+
+    public short getCode(){
+        return code;
+    }
+
+    public Set<TaskStatus> allowedTransitions(){
+        return switch (this){
+            case TO_BE_DONE -> EnumSet.of(IN_PROGRESS);
+            case IN_PROGRESS -> EnumSet.of(TO_BE_DONE, DONE);
+            case DONE -> EnumSet.noneOf(TaskStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(TaskStatus next){
+        return this == next || allowedTransitions().contains(next);
+    }
+
+    public static TaskStatus fromCode(short code){
+        return Arrays.stream(values())
+                .filter(status -> status.code == code)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown task status code: " + code));
+    }
+}
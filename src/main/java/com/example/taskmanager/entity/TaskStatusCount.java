@@ -0,0 +1,32 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="task_status_counts")
+public class TaskStatusCount {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id")
+        private Long userId;
+
+        private TaskStatus status;
+    }
+}
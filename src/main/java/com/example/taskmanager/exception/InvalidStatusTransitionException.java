@@ -0,0 +1,10 @@
+package com.example.taskmanager.exception;
+
+import com.example.taskmanager.entity.TaskStatus;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(TaskStatus from, TaskStatus to){
+        super("Cannot change task status from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.taskmanager.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(){
+        super("Too many concurrent sign-ins; retry shortly");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.taskmanager.pagination;
+
+import com.example.taskmanager.dto.TaskSummary;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+
+    /**
+     * Wraps rows fetched with a limit of {@code size + 1}: the extra row only tells us whether a next page exists.
+     */
+    public static CursorPage<TaskSummary> of(List<TaskSummary> rows, CursorRequest request){
+        boolean hasNext = rows.size() > request.size();
+        List<TaskSummary> content = hasNext ? rows.subList(0, request.size()) : rows;
+        String nextCursor = hasNext
+                ? TaskCursor.of(content.get(content.size() - 1), request.sortBy(), request.direction()).encode()
+                : null;
+        return new CursorPage<>(content, request.size(), hasNext, nextCursor);
+    }
+}
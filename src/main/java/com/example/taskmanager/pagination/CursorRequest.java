@@ -0,0 +1,32 @@
+package com.example.taskmanager.pagination;
+
+import org.springframework.data.domain.Sort;
+
+public record CursorRequest(String sortBy, Sort.Direction direction, int size, TaskCursor after) {
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Builds a request from the controller parameters. When a cursor is given, its own sort wins so that
+     * a client paging with {@code after} alone keeps the ordering the cursor was issued for.
+     */
+    public static CursorRequest of(String after, String sortBy, String sortDir, int size){
+        if(size < 1 || size > MAX_SIZE){
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        if(after != null && !after.isBlank()){
+            TaskCursor cursor = TaskCursor.decode(after);
+            return new CursorRequest(cursor.sortBy(), cursor.direction(), size, cursor);
+        }
+        if(!TaskCursor.SORTABLE.contains(sortBy)){
+            throw new IllegalArgumentException("Unsupported sort for cursor pagination: " + sortBy);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new CursorRequest(sortBy, direction, size, null);
+    }
+
+    public Sort sort(){
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals("id") ? sort : sort.and(Sort.by(direction, "id"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanager.pagination;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position of the last row returned by a keyset page: the sort key and the id used as tie-breaker.
+ * Encoded as an opaque URL-safe token so clients only ever echo it back in {@code after}.
+ */
+public record TaskCursor(String sortBy, Sort.Direction direction, Long id, String value) {
+
+    public static final Set<String> SORTABLE = Set.of("id", "title", "description", "status", "dueDate");
+
+    private static final String NULL_VALUE = "~";
+
+    public static TaskCursor of(TaskSummary task, String sortBy, Sort.Direction direction){
+        return new TaskCursor(sortBy, direction, task.id(), valueOf(task, sortBy));
+    }
+
+    public static TaskCursor decode(String token){
+        try{
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 4);
+            if(parts.length != 4 || !SORTABLE.contains(parts[0])){
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String value = parts[3].equals(NULL_VALUE) ? null : parts[3].substring(1);
+            TaskCursor cursor = new TaskCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), value);
+            // A tampered token is rejected here rather than when its key is first compared
+            cursor.key();
+            return cursor;
+        } catch (IllegalArgumentException ex){
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode(){
+        String encodedValue = value == null ? NULL_VALUE : "=" + value;
+        String raw = sortBy + "|" + direction.name() + "|" + id + "|" + encodedValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Comparable<?> key(){
+        if(value == null){
+            return null;
+        }
+        try{
+            return switch (sortBy){
+                case "id" -> Long.valueOf(value);
+                case "dueDate" -> LocalDate.parse(value);
+                case "status" -> TaskStatus.valueOf(value);
+                default -> value;
+            };
+        } catch (IllegalArgumentException | DateTimeParseException ex){
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    private static String valueOf(TaskSummary task, String sortBy){
+        Object value = switch (sortBy){
+            case "id" -> task.id();
+            case "title" -> task.title();
+            case "description" -> task.description();
+            case "status" -> task.status();
+            case "dueDate" -> task.dueDate();
+            default -> throw new IllegalArgumentException("Unsupported sort for cursor pagination: " + sortBy);
+        };
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanager.query;
+
+import java.util.List;
+
+/**
+ * Composite indexes on {@code tasks}, listed with their key columns in index order. The planner
+ * picks the one whose longest leading prefix is covered by equality/range predicates.
+ */
+public enum TaskAccessPath {
+
+    OWNER_STATUS_DUE("idx_tasks_user_status_due", List.of("user_id", "status", "due_date")),
+    STATUS_DUE("idx_tasks_status_due", List.of("status", "due_date")),
+    DUE_DATE("idx_tasks_due_date", List.of("due_date")),
+    FULL_SCAN("seq_scan", List.of());
+
+    private final String indexName;
+    private final List<String> columns;
+
+    TaskAccessPath(String indexName, List<String> columns){
+        this.indexName=indexName;
+        this.columns=columns;
+    }
+
+    public String getIndexName(){
+        return indexName;
+    }
+
+    public List<String> getColumns(){
+        return columns;
+    }
+}
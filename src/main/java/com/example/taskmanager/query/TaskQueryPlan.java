@@ -0,0 +1,16 @@
+package com.example.taskmanager.query;
+
+import com.example.taskmanager.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public record TaskQueryPlan(Specification<Task> specification, TaskAccessPath accessPath, List<String> indexColumns) {
+
+    public String describe(){
+        if(indexColumns.isEmpty()){
+            return accessPath.getIndexName();
+        }
+        return accessPath.getIndexName() + "(" + String.join(",", indexColumns) + ")";
+    }
+}
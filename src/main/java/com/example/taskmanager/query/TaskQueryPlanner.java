@@ -0,0 +1,67 @@
+package com.example.taskmanager.query;
+
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Component
+public class TaskQueryPlanner {
+
+    public TaskQueryPlan plan(TaskFilter filter){
+        if(filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())){
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+
+        List<Specification<Task>> predicates = new ArrayList<>();
+        boolean hasOwner = filter.getOwner() != null && !filter.getOwner().isBlank();
+        List<TaskStatus> statuses = filter.getStatus() == null ? List.of()
+                : filter.getStatus().stream().filter(Objects::nonNull).distinct().toList();
+        boolean hasDueRange = filter.getDueDate() != null || filter.getDueFrom() != null || filter.getDueTo() != null;
+
+        if(hasOwner){
+            predicates.add(TaskSpecifications.ownerUsername(filter.getOwner()));
+        }
+        if(!statuses.isEmpty()){
+            predicates.add(TaskSpecifications.hasStatusIn(statuses));
+        }
+        if(filter.getDueFrom() != null){
+            predicates.add(TaskSpecifications.dueOnOrAfter(filter.getDueFrom()));
+        }
+        if(filter.getDueTo() != null){
+            predicates.add(TaskSpecifications.dueOnOrBefore(filter.getDueTo()));
+        }
+        if(filter.getDueDate() != null){
+            predicates.add(TaskSpecifications.dueBefore(filter.getDueDate()));
+        }
+        if(filter.getSearch() != null && !filter.getSearch().isEmpty()){
+            predicates.add(TaskSpecifications.titleOrDescription(filter.getSearch(), filter.getSearch()));
+        }
+
+        Specification<Task> specification = Specification.allOf(predicates);
+        if(hasOwner){
+            return withPrefix(specification, TaskAccessPath.OWNER_STATUS_DUE, true, !statuses.isEmpty(), hasDueRange);
+        }
+        if(!statuses.isEmpty()){
+            return withPrefix(specification, TaskAccessPath.STATUS_DUE, !statuses.isEmpty(), hasDueRange);
+        }
+        if(hasDueRange){
+            return withPrefix(specification, TaskAccessPath.DUE_DATE, true);
+        }
+        return new TaskQueryPlan(specification, TaskAccessPath.FULL_SCAN, List.of());
+    }
+
+    private TaskQueryPlan withPrefix(Specification<Task> specification, TaskAccessPath path, boolean... covered){
+        List<String> prefix = new ArrayList<>();
+        for(int i = 0; i < covered.length && covered[i]; i++){
+            prefix.add(path.getColumns().get(i));
+        }
+        return new TaskQueryPlan(specification, path, prefix);
+    }
+}
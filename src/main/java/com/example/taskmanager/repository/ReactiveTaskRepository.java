@@ -0,0 +1,69 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking task reads over R2DBC, for the reactive read API. Same rows and shape as the {@link TaskSummary}
+ * projections of {@link TaskRepository}; pages are ordered by id.
+ */
+@Repository
+public class ReactiveTaskRepository {
+
+    private static final String SELECT = "SELECT id, title, description, status, due_date, version FROM tasks ";
+    private static final String PAGE = " ORDER BY id LIMIT :limit OFFSET :offset";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTaskRepository(DatabaseClient databaseClient){
+        this.databaseClient=databaseClient;
+    }
+
+    public Mono<TaskSummary> findById(Long id){
+        return databaseClient.sql(SELECT + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::summary)
+                .one();
+    }
+
+    public Flux<TaskSummary> findByUserId(Long userId, int limit, long offset){
+        return databaseClient.sql(SELECT + "WHERE user_id = :userId" + PAGE)
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveTaskRepository::summary)
+                .all();
+    }
+
+    public Flux<TaskSummary> findByDueDateAfter(LocalDate dueDate, int limit, long offset){
+        return databaseClient.sql(SELECT + "WHERE due_date > :dueDate" + PAGE)
+                .bind("dueDate", dueDate)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveTaskRepository::summary)
+                .all();
+    }
+
+    public Flux<TaskSummary> findByDueDateBetween(LocalDate start, LocalDate end, int limit, long offset){
+        return databaseClient.sql(SELECT + "WHERE due_date BETWEEN :start AND :end" + PAGE)
+                .bind("start", start)
+                .bind("end", end)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveTaskRepository::summary)
+                .all();
+    }
+
+    private static TaskSummary summary(Readable row){
+        return new TaskSummary(row.get("id", Long.class), row.get("title", String.class), row.get("description", String.class),
+                TaskStatus.fromCode(row.get("status", Short.class)), row.get("due_date", LocalDate.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskListVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskListVersionRepository extends JpaRepository<TaskListVersion, Long> {
+
+    // Runs on every task write; the declared space keeps the other second-level cache regions in place
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_list_versions"))
+    @Query(value = """
+            INSERT INTO task_list_versions (user_id, version) VALUES (:userId, 1)
+            ON CONFLICT (user_id) DO UPDATE SET version = task_list_versions.version + 1
+            """, nativeQuery = true)
+    void bump(@Param("userId") Long userId);
+
+    @Query("SELECT v.version FROM TaskListVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+}
@@ -0,0 +1,117 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.search.TaskText;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Monthly due-date partitions of {@code tasks} (see V7 migration). Partition names are identifiers, which
+ * derived or {@code @Query} methods cannot bind, so this repository goes through JDBC. Names are only ever
+ * built from a {@link YearMonth}.
+ */
+@Repository
+public class TaskPartitionRepository {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'tasks_p'uuuu_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskPartitionRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate=jdbcTemplate;
+    }
+
+    /**
+     * Months that currently have their own partition, oldest first. The default partition is not included.
+     */
+    public List<YearMonth> findMonths(){
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'tasks'::regclass AND c.relname ~ '^tasks_p[0-9]{4}_[0-9]{2}$'
+                        ORDER BY c.relname
+                        """, String.class).stream()
+                .map(name -> YearMonth.parse(name, NAME_FORMAT))
+                .toList();
+    }
+
+    /**
+     * Creates the partition for {@code month}, moving any of its rows out of the default partition.
+     * Returns false when it already exists.
+     */
+    public boolean create(YearMonth month){
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT create_tasks_partition(?)", Boolean.class,
+                Date.valueOf(month.atDay(1))));
+    }
+
+    /**
+     * Locks {@code tasks} for dropping the partition of {@code month}, held until the transaction ends. The detach
+     * needs ACCESS EXCLUSIVE on {@code tasks} anyway; taking it first, before anything on the partition, follows the
+     * parent-then-partition order of every other statement on {@code tasks}, so a drop cannot deadlock against a
+     * write that was not pruned to one partition. Reads of {@code tasks} wait for the drop, a scan of one month.
+     * Returns false when there is no such partition.
+     */
+    public boolean lockForDrop(YearMonth month){
+        jdbcTemplate.execute("LOCK TABLE ONLY tasks IN ACCESS EXCLUSIVE MODE");
+        return exists(month);
+    }
+
+    /**
+     * Per-user, per-status counts of a partition, shaped like the tallies of the set-based deletes.
+     */
+    public List<TaskRepository.StatusTally> tally(YearMonth month){
+        return jdbcTemplate.query("SELECT user_id, status, count(*) AS tasks FROM " + name(month)
+                        + " WHERE user_id IS NOT NULL GROUP BY user_id, status",
+                (rs, rowNum) -> new PartitionTally(rs.getLong("user_id"), rs.getShort("status"), rs.getLong("tasks")));
+    }
+
+    public List<TaskText> findTexts(YearMonth month){
+        return jdbcTemplate.query("SELECT id, title, description FROM " + name(month),
+                (rs, rowNum) -> new TaskText(rs.getLong("id"), rs.getString("title"), rs.getString("description")));
+    }
+
+    /**
+     * Removes the partition's ids from {@code task_ids} (see V10 migration); dropping a partition fires no delete trigger.
+     */
+    public void unregisterIds(YearMonth month){
+        jdbcTemplate.update("DELETE FROM task_ids WHERE id IN (SELECT id FROM " + name(month) + ")");
+    }
+
+    /**
+     * Detaches the partition for {@code month} from {@code tasks} and drops it, under {@link #lockForDrop}.
+     */
+    public void detachAndDrop(YearMonth month){
+        jdbcTemplate.execute("ALTER TABLE tasks DETACH PARTITION " + name(month));
+        jdbcTemplate.execute("DROP TABLE " + name(month));
+    }
+
+    private boolean exists(YearMonth month){
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                name(month)));
+    }
+
+    private static String name(YearMonth month){
+        return NAME_FORMAT.format(month);
+    }
+
+    private record PartitionTally(Long userId, short status, long tasks) implements TaskRepository.StatusTally {
+
+        @Override
+        public Long getUserId(){
+            return userId;
+        }
+
+        @Override
+        public short getStatus(){
+            return status;
+        }
+
+        @Override
+        public long getTasks(){
+            return tasks;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.search.TaskText;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Partial task updates as one conditional statement. Fields passed as null keep their value, which needs
+ * typed null binds; JPA native queries cannot bind a typed null, so this goes through JDBC.
+ */
+@Repository
+public class TaskPatchRepository {
+
+    // The locked "old" row supplies the previous status and texts for the status counters and the trigram index
+    private static final String PATCH_SQL = """
+            UPDATE tasks t SET
+                title = coalesce(?, t.title),
+                description = coalesce(?, t.description),
+                status = coalesce(?, t.status),
+                due_date = coalesce(?, t.due_date),
+                version = t.version + 1
+            FROM (
+                SELECT id, user_id, title, description, status FROM tasks
+                WHERE id = ? AND (? OR version = ?) AND (? OR status = ANY (?))
+                FOR UPDATE
+            ) old
+            WHERE t.id = old.id
+            RETURNING t.id, t.title, t.description, t.status, t.due_date, t.version,
+                      old.user_id, old.status AS previous_status, old.title AS previous_title,
+                      old.description AS previous_description
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskPatchRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate=jdbcTemplate;
+    }
+
+    /**
+     * Applies the non-null fields to task {@code id} if it is still at {@code version} (any version when null)
+     * and, when a status is given, currently in one of {@code statusSources}. Empty when no row matched.
+     */
+    public Optional<PatchedTask> patch(Long id, Long version, String title, String description, TaskStatus status,
+                                       Collection<TaskStatus> statusSources, LocalDate dueDate){
+        List<PatchedTask> patched = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(PATCH_SQL);
+            statement.setObject(1, title, Types.VARCHAR);
+            statement.setObject(2, description, Types.VARCHAR);
+            statement.setObject(3, status == null ? null : status.getCode(), Types.SMALLINT);
+            statement.setObject(4, dueDate == null ? null : Date.valueOf(dueDate), Types.DATE);
+            statement.setLong(5, id);
+            statement.setBoolean(6, version == null);
+            statement.setLong(7, version == null ? 0 : version);
+            statement.setBoolean(8, status == null);
+            statement.setArray(9, connection.createArrayOf("smallint",
+                    statusSources.stream().map(TaskStatus::getCode).toArray()));
+            return statement;
+        }, (rs, rowNum) -> new PatchedTask(
+                new TaskSummary(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                        TaskStatus.fromCode(rs.getShort("status")), rs.getObject("due_date", LocalDate.class),
+                        rs.getLong("version")),
+                rs.getObject("user_id", Long.class),
+                TaskStatus.fromCode(rs.getShort("previous_status")),
+                new TaskText(rs.getLong("id"), rs.getString("previous_title"), rs.getString("previous_description"))));
+        return patched.stream().findFirst();
+    }
+
+    public record PatchedTask(TaskSummary task, Long userId, TaskStatus previousStatus, TaskText before) {
+    }
+}
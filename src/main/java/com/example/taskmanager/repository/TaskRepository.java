@@ -1,34 +1,161 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.Task;
-import com.example.taskmanager.entity.User;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.search.TaskText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
-    Page<Task> findByStatus(String status, Pageable pageable);
+    List<TaskSummary> findSummariesByIdIn(Collection<Long> ids);
 
-    Page<Task> findByUser(User user, Pageable pageable);
+    Page<TaskSummary> findByUserId(Long userId, Pageable pageable);
 
-    long countByStatus(String status);
+    Slice<TaskSummary> findSliceByUserId(Long userId, Pageable pageable);
 
-    Page<Task> findByDueDateBefore(LocalDate dueDate, Pageable pageable);
+    Page<TaskSummary> findByDueDateAfter(LocalDate dueDate, Pageable pageable);
 
-    Page<Task> findByDueDateAfter(LocalDate dueDate, Pageable pageable);
+    Slice<TaskSummary> findSliceByDueDateAfter(LocalDate dueDate, Pageable pageable);
 
-    Page<Task> findByDueDateBetween(LocalDate start, LocalDate end, Pageable pageable);
+    Page<TaskSummary> findByDueDateBetween(LocalDate start, LocalDate end, Pageable pageable);
 
-    void deleteByDueDateBefore(LocalDate dueDate);
+    Slice<TaskSummary> findSliceByDueDateBetween(LocalDate start, LocalDate end, Pageable pageable);
 
-    Page<Task> findByTitleOrDescription(String title, String description, Pageable pageable);
+    Page<TaskSummary> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
 
-    Page<Task> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
+    Slice<TaskSummary> findSliceByTitleContainingIgnoreCase(String keyword, Pageable pageable);
 
-    Page<Task> findByDescriptionContainingIgnoreCase(String keyword, Pageable pageable);
+    Page<TaskSummary> findByDescriptionContainingIgnoreCase(String keyword, Pageable pageable);
+
+    Slice<TaskSummary> findSliceByDescriptionContainingIgnoreCase(String keyword, Pageable pageable);
+
+    Page<TaskSummary> findByIdInAndTitleContainingIgnoreCase(Collection<Long> ids, String keyword, Pageable pageable);
+
+    Slice<TaskSummary> findSliceByIdInAndTitleContainingIgnoreCase(Collection<Long> ids, String keyword, Pageable pageable);
+
+    Page<TaskSummary> findByIdInAndDescriptionContainingIgnoreCase(Collection<Long> ids, String keyword, Pageable pageable);
+
+    Slice<TaskSummary> findSliceByIdInAndDescriptionContainingIgnoreCase(Collection<Long> ids, String keyword, Pageable pageable);
+
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.description, t.status, t.dueDate, t.version) " +
+            "FROM Task t WHERE t.user.id = :userId ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TaskSummary> streamByOwner(@Param("userId") Long userId);
+
+    // Bumps version like any other write, so ETags and optimistic PATCHes see the bulk change. The persistence
+    // context is flushed before and cleared after, so tasks loaded earlier in the transaction are not read stale
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :to, t.version = t.version + 1 WHERE t.user.id = :userId AND t.status = :from " +
+            "AND (:anyDueDate = true OR t.dueDate < :dueBefore)")
+    int updateStatusWhere(@Param("userId") Long userId, @Param("from") TaskStatus from, @Param("to") TaskStatus to,
+                          @Param("anyDueDate") boolean anyDueDate, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM tasks
+                WHERE user_id = :userId
+                  AND status IN (:statuses)
+                  AND (:anyDueDate OR due_date < :dueBefore)
+                RETURNING user_id, status
+            )
+            SELECT user_id AS "userId", status, count(*) AS tasks FROM gone GROUP BY user_id, status
+            """, nativeQuery = true)
+    List<StatusTally> deleteWhere(@Param("userId") Long userId, @Param("statuses") Collection<Short> statuses,
+                                  @Param("anyDueDate") boolean anyDueDate, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query(value = """
+            DELETE FROM tasks
+            WHERE user_id = :userId
+              AND status IN (:statuses)
+              AND (:anyDueDate OR due_date < :dueBefore)
+            RETURNING id, title, description, user_id AS "userId", status
+            """, nativeQuery = true)
+    List<RemovedTask> deleteWhereReturning(@Param("userId") Long userId, @Param("statuses") Collection<Short> statuses,
+                                           @Param("anyDueDate") boolean anyDueDate, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query("SELECT min(t.id) FROM Task t")
+    Long findMinId();
+
+    @Query("SELECT max(t.id) FROM Task t")
+    Long findMaxId();
+
+    @Query(value = "SELECT id FROM tasks WHERE id >= :fromId ORDER BY id OFFSET :rows LIMIT 1", nativeQuery = true)
+    Long findIdAfterRows(@Param("fromId") long fromId, @Param("rows") long rows);
+
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM tasks
+                WHERE id >= :fromId AND id < :toId
+                  AND due_date < :dueBefore
+                RETURNING user_id, status
+            )
+            SELECT user_id AS "userId", status, count(*) AS tasks FROM gone GROUP BY user_id, status
+            """, nativeQuery = true)
+    List<StatusTally> purgeRange(@Param("fromId") long fromId, @Param("toId") long toId, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query(value = """
+            DELETE FROM tasks
+            WHERE id >= :fromId AND id < :toId
+              AND due_date < :dueBefore
+            RETURNING id, title, description, user_id AS "userId", status
+            """, nativeQuery = true)
+    List<RemovedTask> purgeRangeReturning(@Param("fromId") long fromId, @Param("toId") long toId, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query("SELECT new com.example.taskmanager.search.TaskText(t.id, t.title, t.description) FROM Task t WHERE t.id > :after ORDER BY t.id")
+    List<TaskText> findTextsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query(value = """
+            SELECT t.id FROM tasks t
+            WHERE t.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :query)) DESC, t.id
+            """,
+            countQuery = "SELECT count(*) FROM tasks t WHERE t.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    Page<Long> searchFullTextIds(@Param("query") String query, Pageable pageable);
+
+    @Query(value = """
+            SELECT t.id FROM tasks t
+            WHERE t.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :query)) DESC, t.id
+            """,
+            nativeQuery = true)
+    Slice<Long> searchFullTextIdSlice(@Param("query") String query, Pageable pageable);
+
+    interface StatusTally {
+        Long getUserId();
+
+        short getStatus();
+
+        long getTasks();
+    }
+
+    interface RemovedTask {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        Long getUserId();
+
+        short getStatus();
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.pagination.TaskCursor;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public final class TaskSpecifications {
+
+    private TaskSpecifications(){
+    }
+
+    // Compares the user_id column itself, without joining users
+    public static Specification<Task> ownerId(Long userId){
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Task> ownerUsername(String username){
+        return (root, query, cb) -> cb.equal(root.join("user").get("username"), username);
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status){
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasStatusIn(Collection<TaskStatus> statuses){
+        if(statuses.size() == 1){
+            return hasStatus(statuses.iterator().next());
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Task> dueBefore(LocalDate dueDate){
+        return (root, query, cb) -> cb.lessThan(root.get("dueDate"), dueDate);
+    }
+
+    public static Specification<Task> dueOnOrAfter(LocalDate dueDate){
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), dueDate);
+    }
+
+    public static Specification<Task> dueOnOrBefore(LocalDate dueDate){
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), dueDate);
+    }
+
+    public static Specification<Task> titleOrDescription(String title, String description){
+        return (root, query, cb) -> cb.or(cb.equal(root.get("title"), title), cb.equal(root.get("description"), description));
+    }
+
+    /**
+     * Rows strictly after the cursor in (sort key, id) order. Nulls follow PostgreSQL's default ordering:
+     * last when ascending, first when descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Task> after(TaskCursor cursor){
+        return (root, query, cb) -> {
+            boolean ascending = cursor.direction().isAscending();
+            Path<Long> id = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            if(cursor.sortBy().equals("id")){
+                return idAfter;
+            }
+
+            Expression<Comparable> key = root.get(cursor.sortBy());
+            Comparable value = cursor.key();
+            if(value == null){
+                Predicate nextNull = cb.and(cb.isNull(key), idAfter);
+                return ascending ? nextNull : cb.or(nextNull, cb.isNotNull(key));
+            }
+
+            Predicate beyond = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate tie = cb.and(cb.equal(key, value), idAfter);
+            return ascending ? cb.or(beyond, tie, cb.isNull(key)) : cb.or(beyond, tie);
+        };
+    }
+}
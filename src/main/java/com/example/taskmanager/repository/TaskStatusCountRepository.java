@@ -0,0 +1,63 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskStatusCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskStatusCountRepository extends JpaRepository<TaskStatusCount, TaskStatusCount.Key> {
+
+    @Query("SELECT c.taskCount FROM TaskStatusCount c WHERE c.id.userId = :userId AND c.id.status = :status")
+    Optional<Long> findCount(@Param("userId") Long userId, @Param("status") TaskStatus status);
+
+    // Native writes declare the table they touch: without it Hibernate evicts every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_status_counts"))
+    @Query(value = """
+            INSERT INTO task_status_counts (user_id, status, task_count) VALUES (:userId, :status, :delta)
+            ON CONFLICT (user_id, status) DO UPDATE SET task_count = task_status_counts.task_count + EXCLUDED.task_count
+            """, nativeQuery = true)
+    void add(@Param("userId") Long userId, @Param("status") short status, @Param("delta") long delta);
+
+    // Per-user lock between counter writers (shared, many at once) and the reconciliation (exclusive): a
+    // reconciliation then never recounts around a delta that is written but not yet committed.
+    // Released at the end of the transaction; ids beyond the int range only share a lock with another user.
+    @Query(value = "SELECT count(*) FROM pg_advisory_xact_lock_shared(6001, CAST(mod(:userId, 2147483647) AS integer))",
+            nativeQuery = true)
+    long lockForUpdate(@Param("userId") Long userId);
+
+    @Query(value = "SELECT count(*) FROM pg_advisory_xact_lock(6001, CAST(mod(:userId, 2147483647) AS integer))",
+            nativeQuery = true)
+    long lockForReconcile(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_status_counts"))
+    @Query(value = """
+            INSERT INTO task_status_counts (user_id, status, task_count)
+            SELECT user_id, status, count(*) FROM tasks
+            WHERE user_id = :userId
+            GROUP BY user_id, status
+            ON CONFLICT (user_id, status) DO UPDATE SET task_count = EXCLUDED.task_count
+            WHERE task_status_counts.task_count <> EXCLUDED.task_count
+            """, nativeQuery = true)
+    int reconcileExisting(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_status_counts"))
+    @Query(value = """
+            UPDATE task_status_counts c SET task_count = 0
+            WHERE c.user_id = :userId
+              AND c.task_count <> 0
+              AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.user_id = c.user_id AND t.status = c.status)
+            """, nativeQuery = true)
+    int reconcileMissing(@Param("userId") Long userId);
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Loads a user by its natural id, served from the second-level cache when present instead of a query.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,25 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    UserNaturalIdRepositoryImpl(EntityManager entityManager){
+        this.entityManager=entityManager;
+    }
+
+    // Outside a transaction the shared EntityManager would hand out a Session that is already closed
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username){
+        // A derived query would always hit the database; the natural-id API goes through the natural-id cache
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.taskmanager.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of task ids backed by a primitive array. Ids are mostly appended in
+ * increasing order, which keeps inserts O(1) in the common case.
+ */
+class LongPostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id){
+        if(size == 0 || ids[size - 1] < id){
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if(pos >= 0){
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    boolean remove(long id){
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if(pos < 0){
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        if(size > 16 && size < ids.length / 4){
+            ids = Arrays.copyOf(ids, ids.length / 2);
+        }
+        return true;
+    }
+
+    int size(){
+        return size;
+    }
+
+    long[] toArray(){
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Keeps only the ids of {@code candidates} that are also in this list. Both sides are sorted,
+     * so this is a single merge pass.
+     */
+    long[] retainAll(long[] candidates){
+        long[] result = new long[Math.min(candidates.length, size)];
+        int i = 0, j = 0, n = 0;
+        while(i < candidates.length && j < size){
+            if(candidates[i] < ids[j]){
+                i++;
+            } else if(candidates[i] > ids[j]){
+                j++;
+            } else {
+                result[n++] = candidates[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private void ensureCapacity(){
+        if(size == ids.length){
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.taskmanager.search;
+
+public record TaskText(Long id, String title, String description) {
+}
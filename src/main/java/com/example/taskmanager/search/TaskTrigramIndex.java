@@ -0,0 +1,147 @@
+package com.example.taskmanager.search;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * In-memory trigram indexes over task titles and descriptions, used to answer substring searches
+ * without scanning {@code tasks}. Enabled with {@code taskmanager.search.trigram.enabled=true}.
+ */
+@Component
+public class TaskTrigramIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTrigramIndex.class);
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex descriptions = new TrigramIndex();
+    private volatile boolean ready;
+
+    public TaskTrigramIndex(TaskRepository taskRepository,
+                            @Value("${taskmanager.search.trigram.enabled:false}") boolean enabled,
+                            @Value("${taskmanager.search.trigram.max-candidates:5000}") int maxCandidates){
+        this.taskRepository=taskRepository;
+        this.enabled=enabled;
+        this.maxCandidates=maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build(){
+        if(!enabled){
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        long indexed = 0;
+        List<TaskText> batch;
+        do{
+            batch = taskRepository.findTextsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for(TaskText text : batch){
+                add(text);
+                lastId = text.id();
+            }
+            indexed += batch.size();
+        } while(batch.size() == BUILD_BATCH_SIZE);
+        ready = true;
+        log.info("Trigram index built over {} tasks in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    /**
+     * Candidate ids for a title substring search, or {@code null} when the caller should fall back to the
+     * database: index disabled or still building, keyword too short, or too many candidates to be useful.
+     */
+    public long[] titleCandidates(String keyword){
+        return candidates(titles, keyword);
+    }
+
+    public long[] descriptionCandidates(String keyword){
+        return candidates(descriptions, keyword);
+    }
+
+    public void onSaved(Task task){
+        if(enabled){
+            afterCommit(() -> add(new TaskText(task.getId(), task.getTitle(), task.getDescription())));
+        }
+    }
+
+    public void onSaved(List<Task> tasks){
+        if(enabled){
+            List<TaskText> texts = tasks.stream()
+                    .map(task -> new TaskText(task.getId(), task.getTitle(), task.getDescription()))
+                    .toList();
+            afterCommit(() -> texts.forEach(this::add));
+        }
+    }
+
+    public void onUpdated(TaskText before, Task after){
+        onUpdated(before, new TaskText(after.getId(), after.getTitle(), after.getDescription()));
+    }
+
+    public void onUpdated(TaskText before, TaskText after){
+        if(enabled){
+            afterCommit(() -> {
+                remove(before);
+                add(after);
+            });
+        }
+    }
+
+    public void onDeleted(List<TaskText> texts){
+        if(enabled){
+            afterCommit(() -> texts.forEach(this::remove));
+        }
+    }
+
+    private long[] candidates(TrigramIndex index, String keyword){
+        if(!enabled || !ready){
+            return null;
+        }
+        long[] candidates = index.candidates(keyword);
+        if(candidates == null || candidates.length > maxCandidates){
+            return null;
+        }
+        return candidates;
+    }
+
+    private void add(TaskText text){
+        titles.add(text.id(), text.title());
+        descriptions.add(text.id(), text.description());
+    }
+
+    private void remove(TaskText text){
+        titles.remove(text.id(), text.title());
+        descriptions.remove(text.id(), text.description());
+    }
+
+    private void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit(){
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+/**
+ * Inverted index from lower-cased character trigrams to the ids of the texts containing them.
+ * Answers are candidate sets: every text containing the keyword is returned, but a candidate may
+ * contain all of the keyword's trigrams without containing the keyword itself.
+ */
+public class TrigramIndex {
+
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long id, String text){
+        long[] trigrams = trigrams(text);
+        lock.writeLock().lock();
+        try{
+            for(long trigram : trigrams){
+                postings.computeIfAbsent(trigram, key -> new LongPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id, String text){
+        long[] trigrams = trigrams(text);
+        lock.writeLock().lock();
+        try{
+            for(long trigram : trigrams){
+                LongPostingList list = postings.get(trigram);
+                if(list != null && list.remove(id) && list.size() == 0){
+                    postings.remove(trigram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the sorted candidate ids for {@code keyword}, or {@code null} when the keyword is shorter
+     * than a trigram and the index cannot narrow the search.
+     */
+    public long[] candidates(String keyword){
+        long[] trigrams = trigrams(keyword);
+        if(trigrams.length == 0){
+            return null;
+        }
+        lock.readLock().lock();
+        try{
+            List<LongPostingList> lists = new ArrayList<>(trigrams.length);
+            for(long trigram : trigrams){
+                LongPostingList list = postings.get(trigram);
+                if(list == null){
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(LongPostingList::size));
+            long[] result = lists.get(0).toArray();
+            for(int i = 1; i < lists.size() && result.length > 0; i++){
+                result = lists.get(i).retainAll(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long[] trigrams(String text){
+        if(text == null){
+            return new long[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        if(normalized.length() < 3){
+            return new long[0];
+        }
+        return LongStream.range(0, normalized.length() - 2)
+                .map(i -> ((long) normalized.charAt((int) i) << 32)
+                        | ((long) normalized.charAt((int) i + 1) << 16)
+                        | normalized.charAt((int) i + 2))
+                .distinct()
+                .toArray();
+    }
+}
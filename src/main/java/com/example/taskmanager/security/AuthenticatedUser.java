@@ -0,0 +1,24 @@
+package com.example.taskmanager.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The caller as carried by the JWT: id, username and roles, so owner-scoped work can use {@code user_id}
+ * without reading {@code users}. {@link #getName()} keeps {@code Principal#getName()} returning the username.
+ */
+public record AuthenticatedUser(Long id, String username, Set<String> roles) implements Principal {
+
+    @Override
+    public String getName(){
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities(){
+        return roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList();
+    }
+}
@@ -15,10 +15,10 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtFilter(JwtUtil jwtUtil){
-        this.jwtUtil=jwtUtil;
+    public JwtFilter(VerifiedTokenCache verifiedTokenCache){
+        this.verifiedTokenCache=verifiedTokenCache;
     }
 
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
@@ -30,17 +30,12 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String token = null;
 
-        if(authHeader != null && authHeader.startsWith("Bearer ")){
-            token = authHeader.substring(7);
-            username = jwtUtil.exctractUsername(token);
-        }
-
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            if(jwtUtil.validateToken(token, username)){
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(username, null, null);
+        if(authHeader != null && authHeader.startsWith("Bearer ") && SecurityContextHolder.getContext().getAuthentication() == null){
+            AuthenticatedUser user = verifiedTokenCache.authenticate(authHeader.substring(7));
+            // Issued tokens always carry the user id, so the user is never loaded; a token without one is ignored
+            if(user.id() != null){
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user, null, user.authorities());
                 authToken.setDetails((new WebAuthenticationDetailsSource().buildDetails(request)));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
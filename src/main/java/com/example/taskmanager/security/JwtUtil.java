@@ -1,47 +1,85 @@
 package com.example.taskmanager.security;
 
+import com.example.taskmanager.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Immutable and thread-safe once built; building one per call was most of the cost of a parse
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    /**
+     * Token carrying the user's id and roles, so requests can be authorized without loading the user.
+     */
+    public String generationToken(User user){
+        Set<String> roles = user.getRoles() == null ? Set.of() : user.getRoles();
+        return token(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, List.copyOf(roles))
+                .compact();
+    }
 
-    public String generationToken(String username){
+    private JwtBuilder token(String username){
         long EXPIRATION_TIME = 1000 * 60 * 60; //1h
         return Jwts.builder()
                 .setSubject(username)
                 .setExpiration(new Date(System.currentTimeMillis()+ EXPIRATION_TIME))
-                .signWith(key)
-                .compact();
+                .signWith(key);
     }
 
     public String exctractUsername(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parse(token).getSubject();
     }
 
     public boolean validateToken(String token, String username){
-        return username.equals(exctractUsername(token)) && !isTokenExpired(token);
+        Claims claims = parse(token);
+        return username.equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Verifies the token once and builds the caller from its claims; the id is null if the token has no id claim.
+     * Throws a {@link io.jsonwebtoken.JwtException} for an invalid or expired token.
+     */
+    public AuthenticatedUser extractUser(String token){
+        return verify(token).user();
+    }
+
+    /**
+     * Like {@link #extractUser(String)}, also returning when the token expires.
+     */
+    public VerifiedToken verify(String token){
+        Claims claims = parse(token);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        Set<String> roleNames = roles == null ? Set.of()
+                : roles.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        return new VerifiedToken(new AuthenticatedUser(userId == null ? null : userId.longValue(), claims.getSubject(), roleNames),
+                claims.getExpiration().toInstant());
+    }
+
+    private Claims parse(String token){
+        // parseClaimsJws already rejects expired tokens
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private boolean isTokenExpired(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    public record VerifiedToken(AuthenticatedUser user, Instant expiresAt) {
     }
 }
@@ -0,0 +1,121 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt on its own fixed pool with a bounded queue, so a burst of logins cannot take every request thread.
+ * When the queue is full, work is refused at once with {@link PasswordHashingBusyException} (503) rather than
+ * queued behind the burst.
+ * <p>
+ * The async methods let callers release their request thread while the hash runs; the {@link PasswordEncoder}
+ * methods block on the same pool. Hashes made with a lower cost than the configured strength are reported by
+ * {@link #verifyAsync} so they can be upgraded on a successful login.
+ */
+public class PasswordHasher implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry){
+        this.bcrypt = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.active / executor.pool.size etc., tagged name=password-hashing
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+        this.encodeTimer = Timer.builder("taskmanager.password.hashing").tag("operation", "encode")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.matchesTimer = Timer.builder("taskmanager.password.hashing").tag("operation", "matches")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.rejected = Counter.builder("taskmanager.password.rejected").register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword){
+        return submit(() -> encodeTimer.record(() -> bcrypt.encode(rawPassword)));
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword}. On a match with an outdated hash, the password is
+     * rehashed at the configured strength in the same task and returned as {@link Verification#upgradedHash()}.
+     */
+    public CompletableFuture<Verification> verifyAsync(CharSequence rawPassword, String encodedPassword){
+        return submit(() -> {
+            boolean matches = matchesTimer.record(() -> bcrypt.matches(rawPassword, encodedPassword));
+            if(!matches || !bcrypt.upgradeEncoding(encodedPassword)){
+                return new Verification(matches, null);
+            }
+            return new Verification(true, encodeTimer.record(() -> bcrypt.encode(rawPassword)));
+        });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword){
+        return join(encodeAsync(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword){
+        return join(submit(() -> matchesTimer.record(() -> bcrypt.matches(rawPassword, encodedPassword))));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword){
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown(){
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hashing){
+        try {
+            return CompletableFuture.supplyAsync(hashing, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future){
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Result of {@link #verifyAsync}: {@code upgradedHash} is set only when the password matched a hash weaker
+     * than the configured strength.
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+}
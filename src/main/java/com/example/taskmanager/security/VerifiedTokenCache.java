@@ -0,0 +1,65 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Tokens already verified by {@link JwtUtil}, so a client repeating the same bearer token skips the signature
+ * check. Entries are keyed by the SHA-256 of the token, so no usable token is held in memory, and expire with
+ * the token itself. Tokens that fail verification are never cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Clock clock;
+    private final Cache<String, JwtUtil.VerifiedToken> verified;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil, @Value("${taskmanager.jwt.verified-cache-size:10000}") long maximumSize){
+        this(jwtUtil, maximumSize, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, long maximumSize, Clock clock, Ticker ticker){
+        this.jwtUtil=jwtUtil;
+        this.clock=clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String hash, JwtUtil.VerifiedToken token) -> timeLeft(token)))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * The caller the token stands for, verifying it only if it is not cached. Throws a
+     * {@link io.jsonwebtoken.JwtException} for an invalid or expired token.
+     */
+    public AuthenticatedUser authenticate(String token){
+        return verified.get(sha256(token), hash -> jwtUtil.verify(token)).user();
+    }
+
+    private Duration timeLeft(JwtUtil.VerifiedToken token){
+        Duration left = Duration.between(clock.instant(), token.expiresAt());
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+
+    private static String sha256(String token){
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -5,39 +5,88 @@ import com.example.taskmanager.dto.RegisterRequest;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.UserRepository;
 import com.example.taskmanager.security.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.taskmanager.security.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sign-up and login. Lookups run on the request thread and BCrypt on the {@link PasswordHasher} pool; what follows
+ * it (save, token) moves to a small pool of its own, so a slow database never holds a hashing thread and sign-ins
+ * never queue behind exports or purge jobs. When that pool's queue is full, the step runs on the hashing thread
+ * instead, which fills the hashing queue and turns further sign-ins away with a 503.
+ */
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final ThreadPoolExecutor executor;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil){
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher, JwtUtil jwtUtil,
+                       @Value("${taskmanager.password.completion-threads:4}") int threads,
+                       @Value("${taskmanager.password.completion-queue-capacity:64}") int queueCapacity,
+                       MeterRegistry meterRegistry){
         this.userRepository=userRepository;
-        this.passwordEncoder=passwordEncoder;
+        this.passwordHasher=passwordHasher;
         this.jwtUtil=jwtUtil;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sign-in-completion-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // executor.queued / executor.active / executor.pool.size etc., tagged name=sign-in-completion
+        new ExecutorServiceMetrics(executor, "sign-in-completion", Tags.empty()).bindTo(meterRegistry);
     }
 
-    public void registerUser(RegisterRequest request){
+    public CompletableFuture<Void> registerUser(RegisterRequest request){
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        userRepository.save(user);
+        return passwordHasher.encodeAsync(request.getPassword()).thenAcceptAsync(hash -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(hash);
+            userRepository.save(user);
+        }, executor);
     }
 
-    public String login(LoginRequest request){
+    public CompletableFuture<String> login(LoginRequest request){
         User user = userRepository.findByUsername(request.getUsername()).orElseThrow(() -> new RuntimeException("User not found"));
 
-        if(!passwordEncoder.matches(request.getPassword(), user.getPassword())){
-            throw new RuntimeException("Invalid Password");
-        }
+        return passwordHasher.verifyAsync(request.getPassword(), user.getPassword()).thenApplyAsync(verification -> {
+            if(!verification.matches()){
+                throw new RuntimeException("Invalid Password");
+            }
+            if(verification.upgradedHash() != null){
+                user.setPassword(verification.upgradedHash());
+                userRepository.save(user);
+                log.info("Upgraded password hash of user {}", user.getId());
+            }
+            return jwtUtil.generationToken(user);
+        }, executor);
+    }
 
-        return jwtUtil.generationToken(user.getUsername());
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdown();
     }
 }
@@ -0,0 +1,42 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts {@link Task} entries from the second-level cache after writes Hibernate does not see: JDBC updates,
+ * native deletes run as queries, and partition drops. Entries are evicted right away and again after commit,
+ * since a concurrent load may cache the pre-commit row in between.
+ */
+@Component
+public class TaskEntityCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TaskEntityCache(EntityManagerFactory entityManagerFactory){
+        this.entityManagerFactory=entityManagerFactory;
+    }
+
+    public void evict(Long id){
+        evictNowAndAfterCommit(() -> entityManagerFactory.getCache().evict(Task.class, id));
+    }
+
+    public void evictAll(){
+        evictNowAndAfterCommit(() -> entityManagerFactory.getCache().evict(Task.class));
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction){
+        eviction.run();
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit(){
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
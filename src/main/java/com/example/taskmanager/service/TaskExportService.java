@@ -0,0 +1,122 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,status,dueDate";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    public TaskExportService(TaskRepository taskRepository, ObjectMapper objectMapper){
+        this.taskRepository=taskRepository;
+        this.objectMapper=objectMapper;
+    }
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension){
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType(){
+            return mediaType;
+        }
+
+        public String extension(){
+            return extension;
+        }
+
+        public static Format from(String value){
+            try{
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex){
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Writes every task of the user as it comes off the cursor: rows are read {@code fetchSize} at a time and
+     * never collected, so memory stays flat whatever the number of tasks.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        try(Stream<TaskSummary> tasks = taskRepository.streamByOwner(userId)){
+            if(format == Format.CSV){
+                writeCsv(tasks.iterator(), out);
+            } else {
+                writeNdjson(tasks.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<TaskSummary> tasks, OutputStream out) throws IOException {
+        // One generator for the whole response, flushed when its buffer fills rather than after every row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try(JsonGenerator generator = objectMapper.getFactory().createGenerator(out)){
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while(tasks.hasNext()){
+                writer.writeValue(generator, tasks.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<TaskSummary> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while(tasks.hasNext()){
+            TaskSummary task = tasks.next();
+            writer.write(String.valueOf(task.id()));
+            writer.write(',');
+            writer.write(csvField(task.title()));
+            writer.write(',');
+            writer.write(csvField(task.description()));
+            writer.write(',');
+            writer.write(task.status() == null ? "" : task.status().name());
+            writer.write(',');
+            writer.write(task.dueDate() == null ? "" : task.dueDate().toString());
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+
+    static String csvField(String value){
+        if(value == null){
+            return "";
+        }
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0){
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
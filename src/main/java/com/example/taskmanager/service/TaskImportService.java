@@ -0,0 +1,195 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.dto.TaskImportResult.RowError;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.search.TaskTrigramIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports an NDJSON stream of tasks. Rows are parsed and validated one line at a time and inserted in chunks,
+ * each chunk in its own transaction, so a bad row or a failed chunk never rolls back what was already imported.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskStatusCountService taskStatusCountService;
+    private final TaskListVersionService taskListVersionService;
+    private final TaskTrigramIndex taskTrigramIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public TaskImportService(TaskRepository taskRepository, UserRepository userRepository,
+                             TaskStatusCountService taskStatusCountService, TaskListVersionService taskListVersionService,
+                             TaskTrigramIndex taskTrigramIndex,
+                             ObjectMapper objectMapper, Validator validator,
+                             TransactionTemplate transactionTemplate, EntityManager entityManager){
+        this.taskRepository=taskRepository;
+        this.userRepository=userRepository;
+        this.taskStatusCountService=taskStatusCountService;
+        this.taskListVersionService=taskListVersionService;
+        this.taskTrigramIndex=taskTrigramIndex;
+        this.objectMapper=objectMapper;
+        this.validator=validator;
+        this.transactionTemplate=transactionTemplate;
+        this.entityManager=entityManager;
+    }
+
+    public TaskImportResult importTasks(InputStream body, Long userId) throws IOException {
+        User user = userRepository.getReferenceById(userId);
+        ImportProgress progress = new ImportProgress();
+        long started = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = 0;
+        String line;
+        while((line = reader.readLine()) != null){
+            lineNumber++;
+            if(line.isBlank()){
+                continue;
+            }
+            Task task = parse(line, lineNumber, progress);
+            if(task == null){
+                continue;
+            }
+            task.setId(null);
+            task.setVersion(null);
+            task.setUser(user);
+            if(task.getStatus() == null){
+                task.setStatus(TaskStatus.TO_BE_DONE);
+            }
+            chunk.add(task);
+            chunkLines.add(lineNumber);
+            if(chunk.size() == CHUNK_SIZE){
+                insert(chunk, chunkLines, progress);
+                chunk.clear();
+                chunkLines.clear();
+            }
+        }
+        if(!chunk.isEmpty()){
+            insert(chunk, chunkLines, progress);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : progress.imported * 1_000_000_000d / elapsedNanos;
+        log.info("Imported {} tasks for user {} ({} rejected) at {} rows/s", progress.imported, userId, progress.rejected, Math.round(rowsPerSecond));
+        return new TaskImportResult(progress.imported, progress.rejected, elapsedNanos / 1_000_000,
+                Math.round(rowsPerSecond * 10) / 10d, progress.errors, progress.errorsTruncated);
+    }
+
+    private Task parse(String line, long lineNumber, ImportProgress progress){
+        Task task;
+        try{
+            task = objectMapper.readValue(line, Task.class);
+        } catch (JsonProcessingException ex){
+            progress.reject(lineNumber, "Malformed row: " + ex.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if(!violations.isEmpty()){
+            progress.reject(lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return task;
+    }
+
+    /**
+     * Inserts a chunk in one transaction. If the database refuses it, the chunk is retried row by row, each row in
+     * its own transaction, so only the offending rows are rejected, with the database's reason.
+     */
+    private void insert(List<Task> chunk, List<Long> chunkLines, ImportProgress progress){
+        try{
+            save(chunk);
+            progress.imported += chunk.size();
+            return;
+        } catch (DataAccessException ex){
+            if(chunk.size() == 1){
+                progress.reject(chunkLines.get(0), rejection(ex));
+                return;
+            }
+            log.warn("An import chunk of {} rows was rejected, retrying row by row", chunk.size(), ex);
+        }
+        for(int i = 0; i < chunk.size(); i++){
+            Task task = chunk.get(i);
+            // The failed flush already handed out an id; the rolled-back row must be inserted afresh
+            task.setId(null);
+            task.setVersion(null);
+            try{
+                save(List.of(task));
+                progress.imported++;
+            } catch (DataAccessException ex){
+                progress.reject(chunkLines.get(i), rejection(ex));
+            }
+        }
+    }
+
+    private void save(List<Task> tasks){
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.saveAll(tasks);
+            taskRepository.flush();
+            taskStatusCountService.added(tasks);
+            taskListVersionService.touched(tasks.get(0).getUser().getId());
+            taskTrigramIndex.onSaved(tasks);
+            // The request-scoped persistence context would otherwise keep every imported task
+            entityManager.clear();
+        });
+    }
+
+    private static String rejection(DataAccessException ex){
+        String reason = ex.getMostSpecificCause().getMessage();
+        return "Rejected by the database: " + (reason == null ? ex.getClass().getSimpleName() : reason.lines().findFirst().orElse(reason));
+    }
+
+    private static final class ImportProgress {
+        private long imported;
+        private long rejected;
+        private boolean errorsTruncated;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void reject(long line, String message){
+            rejected++;
+            if(errors.size() < MAX_REPORTED_ERRORS){
+                errors.add(new RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
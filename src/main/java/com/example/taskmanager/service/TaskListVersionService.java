@@ -0,0 +1,43 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.TaskListVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Per-user task list versions, the ETag of {@code /api/tasks/all}. Every write to a user's tasks bumps the
+ * user's version in the same transaction, so the list can be revalidated without running the list query.
+ */
+@Service
+public class TaskListVersionService {
+
+    private final TaskListVersionRepository taskListVersionRepository;
+
+    public TaskListVersionService(TaskListVersionRepository taskListVersionRepository){
+        this.taskListVersionRepository=taskListVersionRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void touched(Long userId){
+        if(userId != null){
+            taskListVersionRepository.bump(userId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void touched(Collection<Long> userIds){
+        userIds.stream().filter(Objects::nonNull).distinct().sorted().forEach(taskListVersionRepository::bump);
+    }
+
+    /**
+     * Strong ETag of the task lists of user {@code userId}. Users whose tasks were never written are at version 0.
+     */
+    public String etag(Long userId){
+        long version = taskListVersionRepository.findVersion(userId).orElse(0L);
+        return "\"tasks-" + userId + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.TaskPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Keeps monthly {@code tasks} partitions created ahead of the due dates being written, so new tasks land in
+ * their month rather than in the default partition. Runs at startup and then daily.
+ */
+@Component
+public class TaskPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPartitionMaintainer.class);
+
+    private final TaskPartitionRepository taskPartitionRepository;
+    private final int monthsAhead;
+
+    public TaskPartitionMaintainer(TaskPartitionRepository taskPartitionRepository,
+                                   @Value("${taskmanager.partitions.months-ahead:3}") int monthsAhead){
+        this.taskPartitionRepository=taskPartitionRepository;
+        this.monthsAhead=monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${taskmanager.partitions.maintain-cron:0 30 2 * * *}")
+    public void createUpcomingPartitions(){
+        YearMonth current = YearMonth.now();
+        for(int i = 0; i <= monthsAhead; i++){
+            YearMonth month = current.plusMonths(i);
+            if(taskPartitionRepository.create(month)){
+                log.info("Created tasks partition for {}", month);
+            }
+        }
+    }
+}
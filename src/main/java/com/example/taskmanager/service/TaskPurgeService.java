@@ -0,0 +1,170 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.PurgeJobStatus;
+import com.example.taskmanager.dto.PurgeJobStatus.State;
+import com.example.taskmanager.repository.TaskPartitionRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deletes overdue tasks in the background. Months that fall entirely before the cutoff are dropped as whole
+ * partitions first; what is left is deleted row by row. The id space is walked in ranges of at most {@code chunkSize} rows,
+ * each deleted in its own short transaction, with a pause between ranges so the purge never holds locks or a
+ * connection for long.
+ * Jobs live in memory only: they are visible to the user who started them until the application restarts.
+ */
+@Service
+public class TaskPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPurgeService.class);
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskPartitionRepository taskPartitionRepository;
+    private final TaskExecutor executor;
+    private final long chunkSize;
+    private final Duration pause;
+    private final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+
+    public TaskPurgeService(TaskService taskService, TaskRepository taskRepository,
+                            TaskPartitionRepository taskPartitionRepository,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                            @Value("${taskmanager.purge.chunk-size:5000}") long chunkSize,
+                            @Value("${taskmanager.purge.pause:100ms}") Duration pause){
+        this.taskService=taskService;
+        this.taskRepository=taskRepository;
+        this.taskPartitionRepository=taskPartitionRepository;
+        this.executor=executor;
+        this.chunkSize=chunkSize;
+        this.pause=pause;
+    }
+
+    public PurgeJobStatus start(LocalDate dueBefore, String username){
+        forgetFinishedJobs();
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), username, dueBefore);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        return job.status();
+    }
+
+    public Optional<PurgeJobStatus> find(String id, String username){
+        return ownedJob(id, username).map(PurgeJob::status);
+    }
+
+    public Optional<PurgeJobStatus> cancel(String id, String username){
+        // Honoured between ranges; interrupting could abort a range's transaction halfway through the driver call
+        return ownedJob(id, username).map(job -> {
+            job.cancelRequested = true;
+            return job.status();
+        });
+    }
+
+    private void run(PurgeJob job){
+        try{
+            for(YearMonth month : taskPartitionRepository.findMonths()){
+                if(!month.atEndOfMonth().isBefore(job.dueBefore)){
+                    break;
+                }
+                if(job.cancelRequested){
+                    job.finish(State.CANCELLED, null);
+                    return;
+                }
+                job.deleted += taskService.dropPartition(month);
+            }
+            Long minId = taskRepository.findMinId();
+            Long maxId = taskRepository.findMaxId();
+            if(minId != null){
+                job.firstId = minId;
+                job.lastId = maxId;
+                long from = minId;
+                while(from <= maxId){
+                    if(job.cancelRequested){
+                        job.finish(State.CANCELLED, null);
+                        return;
+                    }
+                    // Bounded by rows rather than id width, since ids taken by plain nextval() calls are sparse
+                    Long next = taskRepository.findIdAfterRows(from, chunkSize);
+                    long to = next == null || next <= from || next > maxId ? maxId + 1 : next;
+                    job.deleted += taskService.purgeRange(from, to, job.dueBefore);
+                    job.nextId = to;
+                    from = to;
+                    Thread.sleep(pause.toMillis());
+                }
+            }
+            job.finish(State.COMPLETED, null);
+            log.info("Purge job {} deleted {} tasks due before {}", job.id, job.deleted, job.dueBefore);
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            job.finish(State.CANCELLED, null);
+        } catch (RuntimeException ex){
+            log.error("Purge job {} failed after deleting {} tasks", job.id, job.deleted, ex);
+            job.finish(State.FAILED, ex.getMessage());
+        }
+    }
+
+    private Optional<PurgeJob> ownedJob(String id, String username){
+        return Optional.ofNullable(jobs.get(id)).filter(job -> job.requestedBy.equals(username));
+    }
+
+    private void forgetFinishedJobs(){
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class PurgeJob {
+        private final String id;
+        private final String requestedBy;
+        private final LocalDate dueBefore;
+        private final Instant startedAt = Instant.now();
+        private volatile boolean cancelRequested;
+        private volatile State state = State.RUNNING;
+        private volatile long deleted;
+        private volatile long firstId;
+        private volatile long lastId;
+        private volatile long nextId;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private PurgeJob(String id, String requestedBy, LocalDate dueBefore){
+            this.id = id;
+            this.requestedBy = requestedBy;
+            this.dueBefore = dueBefore;
+        }
+
+        private void finish(State state, String error){
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private PurgeJobStatus status(){
+            return new PurgeJobStatus(id, dueBefore, state, deleted, percentDone(), startedAt, finishedAt, error);
+        }
+
+        private int percentDone(){
+            if(state == State.COMPLETED){
+                return 100;
+            }
+            if(nextId <= firstId){
+                return 0;
+            }
+            return (int) Math.min(99, (nextId - firstId) * 100 / (lastId - firstId + 1));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.repository.TaskRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskSearchService {
+
+    private final TaskRepository taskRepository;
+
+    public TaskSearchService(TaskRepository taskRepository){
+        this.taskRepository=taskRepository;
+    }
+
+    /**
+     * Ranks matching ids with the native full-text query, then loads only the summary columns for that page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskSummary> search(String text, Pageable pageable, boolean withTotal){
+        String query = toPrefixQuery(text);
+        Slice<Long> ids = withTotal
+                ? taskRepository.searchFullTextIds(query, pageable)
+                : taskRepository.searchFullTextIdSlice(query, pageable);
+        Map<Long, TaskSummary> byId = ids.hasContent()
+                ? taskRepository.findSummariesByIdIn(ids.getContent()).stream()
+                        .collect(Collectors.toMap(TaskSummary::id, Function.identity()))
+                : Map.of();
+        return ids.map(byId::get);
+    }
+
+    /**
+     * Turns free text into a tsquery where every word must match as a prefix, e.g. "repo draft" becomes
+     * {@code repo:* & draft:*}. Only letters and digits survive, so the result is always a valid tsquery.
+     */
+    static String toPrefixQuery(String text){
+        String query = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        if(query.isEmpty()){
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        return query;
+    }
+}
@@ -1,44 +1,98 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.InvalidStatusTransitionException;
+import com.example.taskmanager.pagination.CursorPage;
+import com.example.taskmanager.pagination.CursorRequest;
+import com.example.taskmanager.query.TaskQueryPlan;
+import com.example.taskmanager.query.TaskQueryPlanner;
+import com.example.taskmanager.repository.TaskPartitionRepository;
+import com.example.taskmanager.repository.TaskPatchRepository;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskSpecifications;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.search.TaskText;
+import com.example.taskmanager.search.TaskTrigramIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskPartitionRepository taskPartitionRepository;
+    private final TaskPatchRepository taskPatchRepository;
     private final UserRepository userRepository;
+    private final TaskQueryPlanner taskQueryPlanner;
+    private final TaskTrigramIndex taskTrigramIndex;
+    private final TaskStatusCountService taskStatusCountService;
+    private final TaskListVersionService taskListVersionService;
+    private final TaskEntityCache taskEntityCache;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository){
+    public TaskService(TaskRepository taskRepository, TaskPartitionRepository taskPartitionRepository,
+                       TaskPatchRepository taskPatchRepository, UserRepository userRepository, TaskQueryPlanner taskQueryPlanner,
+                       TaskTrigramIndex taskTrigramIndex, TaskStatusCountService taskStatusCountService,
+                       TaskListVersionService taskListVersionService, TaskEntityCache taskEntityCache){
         this.taskRepository=taskRepository;
+        this.taskPartitionRepository=taskPartitionRepository;
+        this.taskPatchRepository=taskPatchRepository;
         this.userRepository=userRepository;
+        this.taskQueryPlanner=taskQueryPlanner;
+        this.taskTrigramIndex=taskTrigramIndex;
+        this.taskStatusCountService=taskStatusCountService;
+        this.taskListVersionService=taskListVersionService;
+        this.taskEntityCache=taskEntityCache;
     }
 
-    public Page<Task> getTasks(String status, LocalDate dueDate, String search, Pageable pageable){
-        if(search !=null && !search.isEmpty()){
-            return taskRepository.findByTitleOrDescription(search, search, pageable);
-        }
-        else if(status!=null){
-            return taskRepository.findByStatus(status, pageable);
-        }
-        else if(dueDate!=null){
-            return taskRepository.findByDueDateBefore(dueDate,pageable);
-        }
-        else{
-            return taskRepository.findAll(pageable);
+    public TaskQueryPlan planTasks(TaskFilter filter){
+        return taskQueryPlanner.plan(filter);
+    }
+
+    public Slice<TaskSummary> getTasks(TaskQueryPlan plan, Pageable pageable, boolean withTotal){
+        if(withTotal){
+            return taskRepository.findBy(plan.specification(), query -> query.as(TaskSummary.class).page(pageable));
         }
+        return taskRepository.findBy(plan.specification(), query -> query.as(TaskSummary.class).slice(pageable));
+    }
+
+    public CursorPage<TaskSummary> getTasksAfter(TaskQueryPlan plan, CursorRequest request){
+        return scroll(plan.specification(), request);
     }
 
-    public Page<Task> getTasksForUser(String username, Pageable pageable){
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-        return taskRepository.findByUser(user, pageable);
+    public Slice<TaskSummary> getTasksForUser(Long userId, Pageable pageable, boolean withTotal){
+        return withTotal ? taskRepository.findByUserId(userId, pageable) : taskRepository.findSliceByUserId(userId, pageable);
+    }
+
+    public CursorPage<TaskSummary> getTasksForUserAfter(Long userId, CursorRequest request){
+        return scroll(TaskSpecifications.ownerId(userId), request);
+    }
+
+    private CursorPage<TaskSummary> scroll(Specification<Task> filter, CursorRequest request){
+        Specification<Task> spec = request.after() == null ? filter : filter.and(TaskSpecifications.after(request.after()));
+        List<TaskSummary> rows = taskRepository.findBy(spec, query -> query.as(TaskSummary.class)
+                .sortBy(request.sort())
+                .limit(request.size() + 1)
+                .all());
+        return CursorPage.of(rows, request);
     }
 
     public Page<Task> getAllTasks(Pageable pageable){
@@ -49,63 +103,273 @@ public class TaskService {
         return taskRepository.findById(id).orElseThrow(()-> new RuntimeException("Task not found with id: "+id));
     }
 
-    public Task createTask(Task task, String username){
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
+    public TaskSummary getTaskSummary(Long id){
+        // Through the entity rather than a projection query, so repeated reads are served by the second-level cache
+        return taskRepository.findById(id).map(TaskSummary::from)
+                .orElseThrow(()-> new RuntimeException("Task not found with id: "+id));
+    }
+
+    @Transactional
+    public Task createTask(Task task, Long userId){
+        // A reference is enough to set the foreign key; the users row is never read
+        User user = userRepository.getReferenceById(userId);
 
         task.setUser(user);
+        task.setVersion(null);
 
-        if (task.getStatus() == null || task.getStatus().isBlank()) {
-            task.setStatus("TO_BE_DONE");
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.TO_BE_DONE);
         }
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatusCountService.moved(user.getId(), null, saved.getStatus());
+        taskListVersionService.touched(user.getId());
+        taskTrigramIndex.onSaved(saved);
+        return saved;
     }
 
+    @Transactional
     public Task updateTask(Long id, Task updatedTask){
         Task task = getTaskById(id);
+        if(updatedTask.getVersion() != null && !updatedTask.getVersion().equals(task.getVersion())){
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        TaskText before = new TaskText(task.getId(), task.getTitle(), task.getDescription());
+        TaskStatus previousStatus = task.getStatus();
         task.setTitle(updatedTask.getTitle());
         task.setDescription(updatedTask.getDescription());
-        task.setStatus(updatedTask.getStatus());
+        if(updatedTask.getStatus() != null){
+            checkTransition(previousStatus, updatedTask.getStatus());
+            task.setStatus(updatedTask.getStatus());
+        }
         task.setDueDate(updatedTask.getDueDate());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatusCountService.moved(userIdOf(saved), previousStatus, saved.getStatus());
+        taskListVersionService.touched(userIdOf(saved));
+        taskTrigramIndex.onUpdated(before, saved);
+        return saved;
     }
 
+    /**
+     * Applies the non-null fields of {@code patch} in a single conditional UPDATE, only if the task is still at
+     * {@code patch.version()}. Nothing is read unless the update matched no row, to tell why.
+     */
+    @Transactional
+    public TaskSummary patchTask(Long id, TaskPatch patch){
+        return patch(id, patch.version(), patch.title(), patch.description(), patch.status(), patch.dueDate());
+    }
+
+    @Transactional
     public void deleteTask(Long id){
         Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found for id: "+id));
         taskRepository.delete(task);
+        taskStatusCountService.moved(userIdOf(task), task.getStatus(), null);
+        taskListVersionService.touched(userIdOf(task));
+        taskTrigramIndex.onDeleted(List.of(new TaskText(task.getId(), task.getTitle(), task.getDescription())));
     }
 
-    public long countTasksByStatus(String status){
-        return taskRepository.countByStatus(status);
+    public long countTasksByStatus(TaskStatus status, Long userId){
+        return taskStatusCountService.count(userId, status);
     }
 
-    public Page<Task> findTasksByDueDateAfter(LocalDate dueDate, Pageable pageable){
-        return taskRepository.findByDueDateAfter(dueDate, pageable);
+    public Slice<TaskSummary> findTasksByDueDateAfter(LocalDate dueDate, Pageable pageable, boolean withTotal){
+        return withTotal
+                ? taskRepository.findByDueDateAfter(dueDate, pageable)
+                : taskRepository.findSliceByDueDateAfter(dueDate, pageable);
     }
 
-    public Page<Task> findTasksByDueDateBetween(LocalDate start, LocalDate end, Pageable pageable){
-        return taskRepository.findByDueDateBetween(start, end, pageable);
+    public Slice<TaskSummary> findTasksByDueDateBetween(LocalDate start, LocalDate end, Pageable pageable, boolean withTotal){
+        return withTotal
+                ? taskRepository.findByDueDateBetween(start, end, pageable)
+                : taskRepository.findSliceByDueDateBetween(start, end, pageable);
     }
 
-    public void deleteByDueDateBefore(LocalDate dueDate){
-        taskRepository.deleteByDueDateBefore(dueDate);
+    public Slice<TaskSummary> findByTitleContainingIgnoreCase(String keyword, Pageable pageable, boolean withTotal){
+        long[] candidates = taskTrigramIndex.titleCandidates(keyword);
+        if(candidates == null){
+            return withTotal
+                    ? taskRepository.findByTitleContainingIgnoreCase(keyword, pageable)
+                    : taskRepository.findSliceByTitleContainingIgnoreCase(keyword, pageable);
+        }
+        if(candidates.length == 0){
+            return Page.empty(pageable);
+        }
+        return withTotal
+                ? taskRepository.findByIdInAndTitleContainingIgnoreCase(boxed(candidates), keyword, pageable)
+                : taskRepository.findSliceByIdInAndTitleContainingIgnoreCase(boxed(candidates), keyword, pageable);
     }
 
-    public Page<Task> findByTitleContainingIgnoreCase(String keyword, Pageable pageable){
-        return taskRepository.findByTitleContainingIgnoreCase(keyword, pageable);
+    public Slice<TaskSummary> findByDescriptionContainingIgnoreCase(String keyword, Pageable pageable, boolean withTotal){
+        long[] candidates = taskTrigramIndex.descriptionCandidates(keyword);
+        if(candidates == null){
+            return withTotal
+                    ? taskRepository.findByDescriptionContainingIgnoreCase(keyword, pageable)
+                    : taskRepository.findSliceByDescriptionContainingIgnoreCase(keyword, pageable);
+        }
+        if(candidates.length == 0){
+            return Page.empty(pageable);
+        }
+        return withTotal
+                ? taskRepository.findByIdInAndDescriptionContainingIgnoreCase(boxed(candidates), keyword, pageable)
+                : taskRepository.findSliceByIdInAndDescriptionContainingIgnoreCase(boxed(candidates), keyword, pageable);
     }
 
-    public Page<Task> findByDescriptionContainingIgnoreCase(String keyword, Pageable pageable){
-        return taskRepository.findByDescriptionContainingIgnoreCase(keyword, pageable);
+    private static List<Long> boxed(long[] ids){
+        return Arrays.stream(ids).boxed().toList();
     }
 
-    public Task updateStatus(Long id, String status){
-        Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found for id: "+id));
-        User existingUser = task.getUser();
-        if(existingUser == null){
-            throw new RuntimeException("Task has no associated user");
+    private static void checkTransition(TaskStatus from, TaskStatus to){
+        if(from != null && !from.canTransitionTo(to)){
+            throw new InvalidStatusTransitionException(from, to);
+        }
+    }
+
+    /**
+     * Moves every matching task of the user to {@code status} with one UPDATE per allowed source status,
+     * without loading the tasks. Only statuses that may transition to {@code status} are touched.
+     */
+    @Transactional
+    public long updateStatusWhere(Long userId, TaskStatus status, LocalDate dueBefore, List<TaskStatus> currentStatus){
+        // A flag rather than a null check: PostgreSQL cannot type a bare "? IS NULL" parameter
+        boolean anyDueDate = dueBefore == null;
+        LocalDate bound = anyDueDate ? LocalDate.EPOCH : dueBefore;
+        long updated = 0;
+        for(TaskStatus from : transitionSources(status, currentStatus)){
+            int moved = taskRepository.updateStatusWhere(userId, from, status, anyDueDate, bound);
+            taskStatusCountService.moved(userId, from, status, moved);
+            updated += moved;
+        }
+        if(updated > 0){
+            taskListVersionService.touched(userId);
+        }
+        return updated;
+    }
+
+    @Transactional
+    public long deleteWhere(Long userId, LocalDate dueBefore, List<TaskStatus> status){
+        boolean anyStatus = status == null || status.isEmpty();
+        if(dueBefore == null && anyStatus){
+            throw new IllegalArgumentException("At least one of dueBefore or status is required");
         }
-        task.setStatus(status);
-        task.setUser(existingUser);
-        return taskRepository.save(task);
+        List<Short> codes = (anyStatus ? EnumSet.allOf(TaskStatus.class) : EnumSet.copyOf(status)).stream()
+                .map(TaskStatus::getCode)
+                .toList();
+        boolean anyDueDate = dueBefore == null;
+        LocalDate bound = anyDueDate ? LocalDate.EPOCH : dueBefore;
+
+        if(taskTrigramIndex.isEnabled()){
+            return removed(taskRepository.deleteWhereReturning(userId, codes, anyDueDate, bound));
+        }
+        return removedTallies(taskRepository.deleteWhere(userId, codes, anyDueDate, bound));
+    }
+
+    /**
+     * Deletes the tasks due before {@code dueBefore} whose id is in {@code [fromId, toId)}, as one short
+     * transaction of a purge job.
+     */
+    @Transactional
+    public long purgeRange(long fromId, long toId, LocalDate dueBefore){
+        if(taskTrigramIndex.isEnabled()){
+            return removed(taskRepository.purgeRangeReturning(fromId, toId, dueBefore));
+        }
+        return removedTallies(taskRepository.purgeRange(fromId, toId, dueBefore));
+    }
+
+    /**
+     * Drops the whole partition of tasks due in {@code month}. {@code tasks} is locked first, for the whole drop:
+     * its rows are counted for the status counters with no write able to slip in before the detach.
+     */
+    @Transactional
+    public long dropPartition(YearMonth month){
+        if(!taskPartitionRepository.lockForDrop(month)){
+            return 0;
+        }
+        List<TaskText> texts = taskTrigramIndex.isEnabled() ? taskPartitionRepository.findTexts(month) : List.of();
+        long removed = removedTallies(taskPartitionRepository.tally(month));
+        taskPartitionRepository.unregisterIds(month);
+        taskPartitionRepository.detachAndDrop(month);
+        taskTrigramIndex.onDeleted(texts);
+        return removed;
+    }
+
+    private long removedTallies(List<TaskRepository.StatusTally> tallies){
+        taskStatusCountService.removed(tallies);
+        if(!tallies.isEmpty()){
+            taskEntityCache.evictAll();
+        }
+        taskListVersionService.touched(tallies.stream().map(TaskRepository.StatusTally::getUserId).toList());
+        return tallies.stream().mapToLong(TaskRepository.StatusTally::getTasks).sum();
+    }
+
+    // Only used when the trigram index is enabled, as it needs the removed texts
+    private long removed(List<TaskRepository.RemovedTask> removed){
+        Map<Long, Map<TaskStatus, Long>> counts = removed.stream()
+                .filter(task -> task.getUserId() != null)
+                .collect(Collectors.groupingBy(TaskRepository.RemovedTask::getUserId,
+                        Collectors.groupingBy(task -> TaskStatus.fromCode(task.getStatus()), Collectors.counting())));
+        counts.forEach((userId, byStatus) ->
+                byStatus.forEach((status, count) -> taskStatusCountService.moved(userId, status, null, count)));
+        taskListVersionService.touched(counts.keySet());
+        removed.forEach(task -> taskEntityCache.evict(task.getId()));
+        taskTrigramIndex.onDeleted(removed.stream()
+                .map(task -> new TaskText(task.getId(), task.getTitle(), task.getDescription()))
+                .toList());
+        return removed.size();
+    }
+
+    private static Set<TaskStatus> transitionSources(TaskStatus to, List<TaskStatus> currentStatus){
+        if(currentStatus == null || currentStatus.isEmpty()){
+            return Arrays.stream(TaskStatus.values())
+                    .filter(from -> from != to && from.canTransitionTo(to))
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(TaskStatus.class)));
+        }
+        Set<TaskStatus> sources = EnumSet.noneOf(TaskStatus.class);
+        for(TaskStatus from : currentStatus){
+            if(!from.canTransitionTo(to)){
+                throw new InvalidStatusTransitionException(from, to);
+            }
+            if(from != to){
+                sources.add(from);
+            }
+        }
+        return sources;
+    }
+
+    private static Long userIdOf(Task task){
+        return task.getUser() == null ? null : task.getUser().getId();
+    }
+
+    /**
+     * Moves a task to {@code status}; with a {@code version}, only if the task has not changed since it was read.
+     */
+    @Transactional
+    public TaskSummary updateStatus(Long id, TaskStatus status, Long version){
+        return patch(id, version, null, null, status, null);
+    }
+
+    private TaskSummary patch(Long id, Long version, String title, String description, TaskStatus status, LocalDate dueDate){
+        Set<TaskStatus> statusSources = status == null ? Set.of() : transitionSourcesIncluding(status);
+        TaskPatchRepository.PatchedTask patched = taskPatchRepository
+                .patch(id, version, title, description, status, statusSources, dueDate)
+                .orElseThrow(() -> patchRefused(id, version, status));
+        TaskSummary task = patched.task();
+        taskEntityCache.evict(task.id());
+        taskStatusCountService.moved(patched.userId(), patched.previousStatus(), task.status());
+        taskListVersionService.touched(patched.userId());
+        taskTrigramIndex.onUpdated(patched.before(), new TaskText(task.id(), task.title(), task.description()));
+        return task;
+    }
+
+    private RuntimeException patchRefused(Long id, Long version, TaskStatus status){
+        TaskSummary current = getTaskSummary(id);
+        if(status == null || version != null && !version.equals(current.version())){
+            return new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        return new InvalidStatusTransitionException(current.status(), status);
+    }
+
+    private static Set<TaskStatus> transitionSourcesIncluding(TaskStatus to){
+        return Arrays.stream(TaskStatus.values())
+                .filter(from -> from.canTransitionTo(to))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(TaskStatus.class)));
     }
 }
@@ -0,0 +1,122 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskStatusCountRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-user task counts by status, kept in {@code task_status_counts} and updated in the same transaction
+ * as the task write. A nightly reconciliation recomputes them from {@code tasks} to repair any drift, one user
+ * at a time under that user's counter lock.
+ */
+@Service
+public class TaskStatusCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatusCountService.class);
+
+    private static final int RECONCILE_BATCH_SIZE = 1000;
+
+    private final TaskStatusCountRepository taskStatusCountRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskStatusCountService(TaskStatusCountRepository taskStatusCountRepository, UserRepository userRepository,
+                                  TransactionTemplate transactionTemplate){
+        this.taskStatusCountRepository=taskStatusCountRepository;
+        this.userRepository=userRepository;
+        this.transactionTemplate=transactionTemplate;
+    }
+
+    public long count(Long userId, TaskStatus status){
+        return taskStatusCountRepository.findCount(userId, status).orElse(0L);
+    }
+
+    /**
+     * Records a task moving from one status to another; {@code null} stands for "did not exist" (create)
+     * or "no longer exists" (delete).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moved(Long userId, TaskStatus from, TaskStatus to){
+        moved(userId, from, to, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moved(Long userId, TaskStatus from, TaskStatus to, long count){
+        if(userId == null || count == 0 || Objects.equals(from, to)){
+            return;
+        }
+        taskStatusCountRepository.lockForUpdate(userId);
+        if(from != null){
+            taskStatusCountRepository.add(userId, from.getCode(), -count);
+        }
+        if(to != null){
+            taskStatusCountRepository.add(userId, to.getCode(), count);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void added(List<Task> tasks){
+        Map<TaskStatusKey, Long> deltas = new HashMap<>();
+        for(Task task : tasks){
+            if(task.getUser() != null && task.getStatus() != null){
+                deltas.merge(new TaskStatusKey(task.getUser().getId(), task.getStatus()), 1L, Long::sum);
+            }
+        }
+        deltas.keySet().stream().map(TaskStatusKey::userId).distinct().forEach(taskStatusCountRepository::lockForUpdate);
+        deltas.forEach((key, delta) -> taskStatusCountRepository.add(key.userId(), key.status().getCode(), delta));
+    }
+
+    /**
+     * Applies the per-user, per-status counts returned by a set-based delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(List<TaskRepository.StatusTally> tallies){
+        for(TaskRepository.StatusTally tally : tallies){
+            moved(tally.getUserId(), TaskStatus.fromCode(tally.getStatus()), null, tally.getTasks());
+        }
+    }
+
+    /**
+     * Recounts each user's tasks in its own transaction, holding the user's counter lock exclusively: deltas of
+     * writes still in flight are either waited for and counted, or applied after the recount, never overwritten.
+     */
+    @Scheduled(cron = "${taskmanager.status-counts.reconcile-cron:0 0 3 * * *}")
+    public void reconcile(){
+        int repaired = 0;
+        List<Long> userIds;
+        Long lastId = 0L;
+        do{
+            userIds = userRepository.findIdsAfter(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            for(Long userId : userIds){
+                Integer fixed = transactionTemplate.execute(status -> {
+                    taskStatusCountRepository.lockForReconcile(userId);
+                    // Separate statements: the recount's snapshot is taken once the lock is held
+                    return taskStatusCountRepository.reconcileExisting(userId) + taskStatusCountRepository.reconcileMissing(userId);
+                });
+                repaired += fixed == null ? 0 : fixed;
+                lastId = userId;
+            }
+        } while(userIds.size() == RECONCILE_BATCH_SIZE);
+        if(repaired > 0){
+            log.warn("Repaired {} drifted task status counters", repaired);
+        }
+    }
+
+    private record TaskStatusKey(Long userId, TaskStatus status) {
+    }
+}
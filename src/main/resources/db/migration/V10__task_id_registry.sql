@@ -0,0 +1,36 @@
+-- tasks has no primary key since V7: a key on a partitioned table must contain due_date, which is nullable.
+-- task_ids restores id uniqueness across partitions, whoever writes the row: every id inserted into tasks is
+-- registered here and a duplicate fails the insert. Statement-level triggers with transition tables keep bulk
+-- writes (COPY, set-based deletes) to one registry statement each. A due-date change that moves a row between
+-- partitions is an UPDATE and leaves the registry alone; dropped partitions unregister their ids explicitly.
+--
+-- Lookups by id alone (findById, GET/PATCH/DELETE /api/tasks/{id}) still probe idx_tasks_id in every partition,
+-- one index descent per month kept: this is the price of due-date pruning and O(1) retention, and it grows with
+-- the number of partitions, not with the number of tasks.
+CREATE TABLE task_ids (
+    id BIGINT PRIMARY KEY
+);
+
+INSERT INTO task_ids (id) SELECT id FROM tasks;
+
+CREATE OR REPLACE FUNCTION register_task_ids() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO task_ids (id) SELECT id FROM inserted;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION unregister_task_ids() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM task_ids WHERE id IN (SELECT id FROM deleted);
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tasks_register_ids AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS inserted FOR EACH STATEMENT EXECUTE FUNCTION register_task_ids();
+
+CREATE TRIGGER tasks_unregister_ids AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS deleted FOR EACH STATEMENT EXECUTE FUNCTION unregister_task_ids();
@@ -0,0 +1,16 @@
+-- Built concurrently so existing deployments keep accepting writes; Flyway runs this file outside a transaction.
+
+-- Owner-scoped listing, status and due-date filters (TaskQueryPlanner: OWNER_STATUS_DUE)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_status_due ON tasks (user_id, status, due_date, id);
+
+-- findByUser and keyset pagination of /api/tasks/all in id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id ON tasks (user_id, id);
+
+-- findByStatus, countByStatus, status sets without an owner (STATUS_DUE)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_due ON tasks (status, due_date, id);
+
+-- findByDueDateBefore/After/Between and deleteByDueDateBefore (DUE_DATE)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_due_date ON tasks (due_date, id);
+
+-- EAGER roles fetch on every user load
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id);
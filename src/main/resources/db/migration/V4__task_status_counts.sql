@@ -0,0 +1,12 @@
+CREATE TABLE task_status_counts (
+    user_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    status     VARCHAR(255) NOT NULL,
+    task_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, status)
+);
+
+INSERT INTO task_status_counts (user_id, status, task_count)
+SELECT user_id, status, count(*)
+FROM tasks
+WHERE user_id IS NOT NULL AND status IS NOT NULL
+GROUP BY user_id, status;
@@ -0,0 +1,22 @@
+-- Task status becomes a fixed SMALLINT code (see TaskStatus): 0 TO_BE_DONE, 1 IN_PROGRESS, 2 DONE.
+-- Free-form values that do not name a known status fall back to TO_BE_DONE.
+ALTER TABLE tasks ALTER COLUMN status TYPE SMALLINT USING
+    CASE upper(trim(status))
+        WHEN 'IN_PROGRESS' THEN 1
+        WHEN 'DONE' THEN 2
+        ELSE 0
+    END;
+ALTER TABLE tasks ALTER COLUMN status SET DEFAULT 0;
+ALTER TABLE tasks ALTER COLUMN status SET NOT NULL;
+
+-- Several legacy spellings may collapse onto one code, so the counters are rebuilt rather than converted.
+DELETE FROM task_status_counts;
+ALTER TABLE task_status_counts ALTER COLUMN status TYPE SMALLINT USING 0;
+INSERT INTO task_status_counts (user_id, status, task_count)
+SELECT user_id, status, count(*)
+FROM tasks
+WHERE user_id IS NOT NULL
+GROUP BY user_id, status;
+
+-- Open work (not DONE) is what the board lists and filters on; keep a small index for it alone.
+CREATE INDEX idx_tasks_user_open_due ON tasks (user_id, due_date, id) WHERE status <> 2;
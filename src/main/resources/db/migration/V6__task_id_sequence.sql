@@ -0,0 +1,9 @@
+-- IDENTITY columns force Hibernate to insert tasks one row at a time to learn each id.
+-- A sequence stepping by 50 lets it hand out ids from memory (pooled-lo) and batch the inserts.
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50 OWNED BY tasks.id;
+
+SELECT setval('tasks_seq', COALESCE((SELECT max(id) FROM tasks), 0) + 1, false);
+
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
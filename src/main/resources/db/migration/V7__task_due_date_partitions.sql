@@ -0,0 +1,81 @@
+-- tasks becomes a table partitioned by due_date month, so due-date range queries prune to the months they touch
+-- and retention detaches whole partitions instead of deleting rows. Tasks without a due date, or outside the
+-- months that have a partition yet, live in tasks_default.
+-- The table is rewritten: run this migration in a maintenance window.
+
+-- A primary or unique key on a partitioned table must contain due_date, which is nullable; ids stay unique
+-- because they only come from tasks_seq, and idx_tasks_id keeps lookups by id indexed in every partition.
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+ALTER SEQUENCE tasks_seq OWNED BY NONE;
+
+CREATE TABLE tasks (
+    id            BIGINT       NOT NULL DEFAULT nextval('tasks_seq'),
+    user_id       BIGINT       REFERENCES users (id),
+    title         VARCHAR(100) NOT NULL,
+    description   VARCHAR(500) NOT NULL,
+    status        SMALLINT     NOT NULL DEFAULT 0,
+    due_date      DATE,
+    search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED
+) PARTITION BY RANGE (due_date);
+
+ALTER SEQUENCE tasks_seq OWNED BY tasks.id;
+
+CREATE TABLE tasks_default PARTITION OF tasks DEFAULT;
+
+-- Creates the partition tasks_pYYYY_MM holding the month of the given date; false if it already exists.
+-- Rows of that month already sitting in tasks_default are moved into it, otherwise ATTACH would refuse it.
+CREATE OR REPLACE FUNCTION create_tasks_partition(month DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound    DATE := date_trunc('month', month)::DATE;
+    upper_bound    DATE := (date_trunc('month', month) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'tasks_p' || to_char(month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    -- ATTACH takes this lock anyway; taking it first keeps new rows for the month from landing in the default meanwhile
+    LOCK TABLE tasks_default IN ACCESS EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE tasks INCLUDING DEFAULTS INCLUDING GENERATED)', partition_name);
+    EXECUTE format('WITH moved AS (
+                        DELETE FROM tasks_default WHERE due_date >= $1 AND due_date < $2
+                        RETURNING id, user_id, title, description, status, due_date
+                    )
+                    INSERT INTO %I (id, user_id, title, description, status, due_date) SELECT * FROM moved',
+                   partition_name) USING lower_bound, upper_bound;
+    EXECUTE format('ALTER TABLE tasks ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    RETURN TRUE;
+END
+$$;
+
+-- One partition per month that already has tasks, within ten years back; older or further-out dates stay in
+-- the default until the partition maintainer reaches them. The next months are created ahead as well.
+SELECT create_tasks_partition(month::DATE)
+FROM (
+    SELECT DISTINCT date_trunc('month', due_date) AS month
+    FROM tasks_unpartitioned
+    WHERE due_date >= date_trunc('month', current_date) - INTERVAL '10 years'
+      AND due_date < date_trunc('month', current_date) + INTERVAL '4 months'
+    UNION
+    SELECT generate_series(date_trunc('month', current_date), date_trunc('month', current_date) + INTERVAL '3 months', INTERVAL '1 month')
+) months
+ORDER BY month;
+
+INSERT INTO tasks (id, user_id, title, description, status, due_date)
+SELECT id, user_id, title, description, status, due_date
+FROM tasks_unpartitioned;
+
+DROP TABLE tasks_unpartitioned;
+
+-- Indexes created on the parent cascade to every partition, present and future
+CREATE INDEX idx_tasks_id ON tasks (id);
+CREATE INDEX idx_tasks_user_status_due ON tasks (user_id, status, due_date, id);
+CREATE INDEX idx_tasks_user_id ON tasks (user_id, id);
+CREATE INDEX idx_tasks_status_due ON tasks (status, due_date, id);
+CREATE INDEX idx_tasks_due_date ON tasks (due_date, id);
+CREATE INDEX idx_tasks_user_open_due ON tasks (user_id, due_date, id) WHERE status <> 2;
+CREATE INDEX idx_tasks_search ON tasks USING GIN (search_vector);
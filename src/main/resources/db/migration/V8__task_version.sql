@@ -0,0 +1,28 @@
+-- Optimistic locking: every update bumps version, and conditional updates only apply to the version the client read.
+-- A constant default is a catalog-only change, even on the partitioned table.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Same as V7, but rows moved out of the default partition keep their version.
+CREATE OR REPLACE FUNCTION create_tasks_partition(month DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound    DATE := date_trunc('month', month)::DATE;
+    upper_bound    DATE := (date_trunc('month', month) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'tasks_p' || to_char(month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    LOCK TABLE tasks_default IN ACCESS EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE tasks INCLUDING DEFAULTS INCLUDING GENERATED)', partition_name);
+    EXECUTE format('WITH moved AS (
+                        DELETE FROM tasks_default WHERE due_date >= $1 AND due_date < $2
+                        RETURNING id, user_id, title, description, status, due_date, version
+                    )
+                    INSERT INTO %I (id, user_id, title, description, status, due_date, version) SELECT * FROM moved',
+                   partition_name) USING lower_bound, upper_bound;
+    EXECUTE format('ALTER TABLE tasks ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    RETURN TRUE;
+END
+$$;
@@ -0,0 +1,6 @@
+-- Per-user change counter behind the ETag of the user's task lists: bumped in the same transaction as any write
+-- to the user's tasks, so an unchanged counter means an unchanged list. No row yet reads as version 0.
+CREATE TABLE task_list_versions (
+    user_id BIGINT NOT NULL PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
+);
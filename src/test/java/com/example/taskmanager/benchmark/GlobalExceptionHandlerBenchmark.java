@@ -0,0 +1,89 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The error paths of {@link GlobalExceptionHandler}. Each benchmark creates its exception, as a failing request
+ * does, so the stack trace capture is part of the cost; {@code notFoundPrebuilt} shows the handler alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MethodParameter parameter;
+    private RuntimeException notFound;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        parameter = new MethodParameter(GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("endpoint", Task.class), 0);
+        notFound = new RuntimeException("Task not found with id: 42");
+    }
+
+    @Benchmark
+    public Object notFound(){
+        return handler.handleRuntimeException(new RuntimeException("Task not found with id: 42"));
+    }
+
+    @Benchmark
+    public Object notFoundPrebuilt(){
+        return handler.handleRuntimeException(notFound);
+    }
+
+    @Benchmark
+    public Object unexpected(){
+        return handler.handleRuntimeException(new RuntimeException("connection reset"));
+    }
+
+    @Benchmark
+    public Object illegalArgument(){
+        return handler.handleIllegalArgumentException(new IllegalArgumentException("At least one of dueBefore or status is required"));
+    }
+
+    @Benchmark
+    public Object optimisticLockingFailure(){
+        return handler.handleOptimisticLockingFailure(new ObjectOptimisticLockingFailureException(Task.class, 42L));
+    }
+
+    @Benchmark
+    public Object typeMismatch(){
+        return handler.handleTypeMismatch(new MethodArgumentTypeMismatchException("soon", Long.class, "id", parameter,
+                new NumberFormatException("For input string: \"soon\"")));
+    }
+
+    @Benchmark
+    public Object validation(){
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(new Task(), "task");
+        result.addError(new FieldError("task", "title", "Title cannot be empty"));
+        result.addError(new FieldError("task", "dueDate", "Due date cannot be in the past"));
+        return handler.handleValidationExceptions(new MethodArgumentNotValidException(parameter, result));
+    }
+
+    @SuppressWarnings("unused")
+    private static void endpoint(Task task){
+    }
+}
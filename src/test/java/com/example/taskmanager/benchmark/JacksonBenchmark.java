@@ -0,0 +1,92 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: a {@link Task} entity and a 20-task {@link Page} of them, next to the
+ * {@link TaskSummary} slice the list endpoints actually return. The mapper is built like Spring Boot's.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private Page<Task> page;
+    private Slice<TaskSummary> summaries;
+
+    @Setup
+    public void setUp(){
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("maxime");
+        owner.setRoles(Set.of("USER"));
+
+        List<Task> tasks = new ArrayList<>();
+        List<TaskSummary> summaryList = new ArrayList<>();
+        for(int i = 0; i < PAGE_SIZE; i++){
+            Task t = new Task();
+            t.setId(1000L + i);
+            t.setUser(owner);
+            t.setTitle("Prepare the quarterly report " + i);
+            t.setDescription("Collect the figures from every team and write the summary for the board meeting");
+            t.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            t.setDueDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            t.setVersion((long) i);
+            tasks.add(t);
+            summaryList.add(TaskSummary.from(t));
+        }
+        task = tasks.get(0);
+        page = new PageImpl<>(tasks, PageRequest.of(0, PAGE_SIZE), 1000);
+        summaries = new SliceImpl<>(summaryList, PageRequest.of(0, PAGE_SIZE), true);
+    }
+
+    @Benchmark
+    public byte[] task() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] pageOfTasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] sliceOfSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification in {@link JwtUtil}, and a verification served by {@link VerifiedTokenCache}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp(){
+        jwtUtil = new JwtUtil();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, 1000);
+        user = new User();
+        user.setId(42L);
+        user.setUsername("maxime");
+        user.setRoles(Set.of("USER"));
+        token = jwtUtil.generationToken(user);
+    }
+
+    @Benchmark
+    public String generationToken(){
+        return jwtUtil.generationToken(user);
+    }
+
+    @Benchmark
+    public String exctractUsername(){
+        return jwtUtil.exctractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken(){
+        return jwtUtil.validateToken(token, "maxime");
+    }
+
+    @Benchmark
+    public AuthenticatedUser extractUser(){
+        return jwtUtil.extractUser(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser authenticateCached(){
+        return verifiedTokenCache.authenticate(token);
+    }
+}
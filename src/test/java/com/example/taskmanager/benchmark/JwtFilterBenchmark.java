@@ -0,0 +1,94 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.security.JwtFilter;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of {@link JwtFilter} on an authenticated request: with a token already in the verified-token cache,
+ * and with tokens rotating through a set larger than the cache, so nearly every pass verifies a signature.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+
+    private static final int CACHE_SIZE = 256;
+    private static final int TOKENS = 16 * CACHE_SIZE;
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private JwtFilter filter;
+    private MockHttpServletRequest cachedRequest;
+    private MockHttpServletRequest[] uncachedRequests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp(){
+        JwtUtil jwtUtil = new JwtUtil();
+        // Tokens carry the user id, so the repository is never called
+        filter = new JwtFilter(new VerifiedTokenCache(jwtUtil, CACHE_SIZE));
+        response = new MockHttpServletResponse();
+        cachedRequest = request(jwtUtil.generationToken(user(0)));
+        uncachedRequests = new MockHttpServletRequest[TOKENS];
+        for(int i = 0; i < TOKENS; i++){
+            uncachedRequests[i] = request(jwtUtil.generationToken(user(i + 1)));
+        }
+    }
+
+    @Benchmark
+    public Object cachedToken() throws ServletException, IOException {
+        return filter(cachedRequest);
+    }
+
+    @Benchmark
+    public Object uncachedToken() throws ServletException, IOException {
+        next = (next + 1) % TOKENS;
+        return filter(uncachedRequests[next]);
+    }
+
+    private Object filter(MockHttpServletRequest request) throws ServletException, IOException {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static MockHttpServletRequest request(String token){
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static User user(long id){
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setRoles(Set.of("USER"));
+        return user;
+    }
+}
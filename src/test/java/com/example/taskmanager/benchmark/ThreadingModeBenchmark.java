@@ -0,0 +1,200 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.TaskmanagerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and latency of the same workload with requests on platform threads and on virtual threads, against
+ * a deliberately small connection pool. Each mode gets a fresh application context on the same database;
+ * {@code concurrency} clients loop on {@code GET /api/tasks/all} and {@code GET /api/tasks/{id}} for a warm-up
+ * and then a measured window.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test}. Tunables are system properties: {@code benchmark.concurrency} (400),
+ * {@code benchmark.pool-size} (10), {@code benchmark.tomcat-threads} (200), {@code benchmark.warmup} (PT10S),
+ * {@code benchmark.duration} (PT30S), and {@code benchmark.jdbc-url}/{@code -username}/{@code -password} to use an
+ * existing database instead of a container. The virtual-thread run is skipped below Java 21.
+ */
+@Tag("benchmark")
+public class ThreadingModeBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 10);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+    private static final int TASKS = 200;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url");
+        String username = System.getProperty("benchmark.username", "postgres");
+        String password = System.getProperty("benchmark.password", "postgres");
+        if(jdbcUrl == null){
+            postgres = new PostgreSQLContainer<>("postgres:15").withDatabaseName("bench").withUsername("user").withPassword("password");
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        try {
+            List<Result> results = new ArrayList<>();
+            results.add(run(false, jdbcUrl, username, password));
+            if(Runtime.version().feature() >= 21){
+                results.add(run(true, jdbcUrl, username, password));
+            } else {
+                System.out.println("Virtual-thread run skipped: Java " + Runtime.version().feature() + " has no virtual threads");
+            }
+            System.out.printf("%nconcurrency=%d pool=%d tomcat-threads=%d measured=%ss%n", CONCURRENCY, POOL_SIZE, TOMCAT_THREADS,
+                    DURATION.toSeconds());
+            System.out.printf("%-9s %10s %9s %9s %9s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            results.forEach(result -> System.out.printf("%-9s %10.0f %9.1f %9.1f %9.1f %8d%n", result.mode, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors));
+        } finally {
+            if(postgres != null){
+                postgres.stop();
+            }
+        }
+    }
+
+    private Result run(boolean virtualThreads, String jdbcUrl, String username, String password) throws Exception {
+        // Command-line arguments, since they take precedence over application.properties
+        try(ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskmanagerApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.jpa.show-sql=false")){
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            String token = signIn(base, virtualThreads ? "bench-virtual" : "bench-platform");
+            List<Long> ids = seed(base, token);
+
+            load(base, token, ids, WARMUP);
+            Result result = load(base, token, ids, DURATION);
+            result.mode = virtualThreads ? "virtual" : "platform";
+            return result;
+        }
+    }
+
+    private String signIn(String base, String username) throws Exception {
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"benchmark\"}";
+        http.send(json(base + "/auth/register", credentials), HttpResponse.BodyHandlers.discarding());
+        return http.send(json(base + "/auth/login", credentials), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private List<Long> seed(String base, String token) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < TASKS; i++){
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Task " + i + "\",\"description\":\"Benchmark task\"}"))
+                    .build();
+            String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            ids.add(Long.parseLong(body.substring(body.indexOf(':') + 1, body.indexOf(','))));
+        }
+        return ids;
+    }
+
+    private Result load(String base, String token, List<Long> ids, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for(int c = 0; c < CONCURRENCY; c++){
+                int client = c;
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for(int i = client; System.nanoTime() < deadline; i++){
+                        // Mostly list pages, which always hit the database; every fourth request reads one task
+                        String path = i % 4 == 0 ? "/tasks/" + ids.get(i % ids.size()) : "/tasks/all?size=20&page=" + (i % 10);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            if(http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200){
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if(count == latencies.length){
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            List<long[]> all = new ArrayList<>();
+            for(Future<long[]> future : futures){
+                all.add(future.get());
+            }
+            long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, duration, errors.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static HttpRequest json(String uri, String body){
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final Duration duration;
+        private final long errors;
+        private String mode;
+
+        private Result(long[] sortedLatencies, Duration duration, long errors){
+            this.sortedLatencies=sortedLatencies;
+            this.duration=duration;
+            this.errors=errors;
+        }
+
+        double throughput(){
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentile(double p){
+            if(sortedLatencies.length == 0){
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: the reactive reads use their own R2DBC connections and only see committed rows
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReactiveTaskControllerIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test")
+            .withUsername("user")
+            .withPassword("password");
+
+    static {
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository.deleteAll();
+        owner = userRepository.findByUsername("reactiveuser").orElseGet(() -> {
+            User user = new User();
+            user.setUsername("reactiveuser");
+            user.setPassword("secret");
+            return userRepository.save(user);
+        });
+    }
+
+    @Test
+    void getAllTasks_ShouldStreamOwnTasksAsNdjson() throws Exception {
+        Task first = taskRepository.save(task("First", LocalDate.of(2030, 1, 10)));
+        Task second = taskRepository.save(task("Second", LocalDate.of(2030, 2, 10)));
+
+        MvcResult started = mockMvc.perform(get("/api/reactive/tasks/all")
+                        .header("Authorization", "Bearer " + jwtUtil.generationToken(owner))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + first.getId() + ","));
+        assertTrue(lines[1].startsWith("{\"id\":" + second.getId() + ","));
+    }
+
+    @Test
+    void getTaskById_ShouldReturnTask_OrNotFound() throws Exception {
+        Task saved = taskRepository.save(task("Single", LocalDate.of(2030, 3, 1)));
+        String jwtToken = "Bearer " + jwtUtil.generationToken(owner);
+
+        MvcResult found = mockMvc.perform(get("/api/reactive/tasks/" + saved.getId()).header("Authorization", jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(found))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Single"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        MvcResult missing = mockMvc.perform(get("/api/reactive/tasks/" + (saved.getId() + 1000)).header("Authorization", jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(missing))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void findTasksByDueDateBetween_ShouldOnlyStreamTasksInRange() throws Exception {
+        taskRepository.save(task("January", LocalDate.of(2030, 1, 15)));
+        taskRepository.save(task("March", LocalDate.of(2030, 3, 15)));
+
+        MvcResult started = mockMvc.perform(get("/api/reactive/tasks/due-between")
+                        .param("start", "2030-01-01")
+                        .param("end", "2030-01-31")
+                        .header("Authorization", "Bearer " + jwtUtil.generationToken(owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().trim();
+        assertEquals(1, body.split("\n").length);
+        assertTrue(body.contains("\"title\":\"January\""));
+    }
+
+    private Task task(String title, LocalDate dueDate){
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Reactive read");
+        task.setStatus(TaskStatus.TO_BE_DONE);
+        task.setDueDate(dueDate);
+        task.setUser(owner);
+        return task;
+    }
+}
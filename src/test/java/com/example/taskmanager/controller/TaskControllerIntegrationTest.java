@@ -1,7 +1,10 @@
 package com.example.taskmanager.controller;
 
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
 import com.example.taskmanager.security.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,8 +27,11 @@ import java.time.LocalDate;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,6 +66,9 @@ public class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -73,7 +82,7 @@ public class TaskControllerIntegrationTest {
 
     @Test
     void getAllTasks_ShouldReturnEmptyList() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
         mockMvc.perform(get("/api/tasks")
                         .header("Authorization", jwtToken)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -81,15 +90,28 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.content.length()").value(0));
     }
 
+    @Test
+    void getAllTasks_ShouldSkipTotals_WhenCountDisabled() throws Exception {
+        String jwtToken = bearer(testUser());
+        mockMvc.perform(get("/api/tasks")
+                        .param("count", "false")
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
     @Test
     void createTask_ShouldReturnCreatedTask() throws Exception {
         Task task = new Task();
         task.setTitle("Test Task");
         task.setDescription("Description");
-        task.setStatus("open");
+        task.setStatus(TaskStatus.TO_BE_DONE);
         task.setDueDate(LocalDate.now().plusDays(3));
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(post("/api/tasks")
                         .header("Authorization", jwtToken)
@@ -97,7 +119,7 @@ public class TaskControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(task)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.title").value("Test Task"))
-                .andExpect(jsonPath("$.status").value("open"));
+                .andExpect(jsonPath("$.status").value("TO_BE_DONE"));
     }
 
     @Test
@@ -105,11 +127,11 @@ public class TaskControllerIntegrationTest {
         Task task = new Task();
         task.setTitle("Task1");
         task.setDescription("Description1");
-        task.setStatus("open");
+        task.setStatus(TaskStatus.TO_BE_DONE);
         task.setDueDate(LocalDate.now().plusDays(2));
         task = taskRepository.save(task);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(get("/api/tasks/{id}", task.getId())
                         .header("Authorization", jwtToken)
@@ -120,7 +142,7 @@ public class TaskControllerIntegrationTest {
 
     @Test
     void getTaskById_ShouldReturn404_WhenNotFound() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
 
         mockMvc.perform(get("/api/tasks/{id}", 999L)
@@ -134,14 +156,14 @@ public class TaskControllerIntegrationTest {
         Task task = new Task();
         task.setTitle("Old Task");
         task.setDescription("Old Description");
-        task.setStatus("open");
+        task.setStatus(TaskStatus.IN_PROGRESS);
         task.setDueDate(LocalDate.now().plusDays(1));
         task = taskRepository.save(task);
 
         task.setTitle("Updated Task");
-        task.setStatus("done");
+        task.setStatus(TaskStatus.DONE);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(put("/api/tasks/{id}", task.getId())
                         .header("Authorization", jwtToken)
@@ -149,7 +171,7 @@ public class TaskControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(task)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Updated Task"))
-                .andExpect(jsonPath("$.status").value("done"));
+                .andExpect(jsonPath("$.status").value("DONE"));
     }
 
     @Test
@@ -157,11 +179,11 @@ public class TaskControllerIntegrationTest {
         Task task = new Task();
         task.setTitle("Task to delete");
         task.setDescription("Description");
-        task.setStatus("open");
+        task.setStatus(TaskStatus.TO_BE_DONE);
         task.setDueDate(LocalDate.now());
         task = taskRepository.save(task);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(delete("/api/tasks/{id}", task.getId())
                         .header("Authorization", jwtToken)
@@ -171,7 +193,7 @@ public class TaskControllerIntegrationTest {
 
     @Test
     void deleteTask_ShouldReturn404_WhenNotFound() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(delete("/api/tasks/{id}", 999L)
                         .header("Authorization", jwtToken)
@@ -184,10 +206,10 @@ public class TaskControllerIntegrationTest {
         Task task = new Task();
         task.setTitle("Nonexistent");
         task.setDescription("Does not exist");
-        task.setStatus("open");
+        task.setStatus(TaskStatus.TO_BE_DONE);
         task.setDueDate(LocalDate.now().plusDays(1));
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer(testUser());
 
         mockMvc.perform(put("/api/tasks/{id}", 999L)
                         .header("Authorization", jwtToken)
@@ -195,4 +217,216 @@ public class TaskControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(task)))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void patchTask_ShouldChangeOnlyGivenFields_AndRejectStaleVersion() throws Exception {
+        User owner = bulkUser();
+        Task task = taskRepository.saveAndFlush(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now().plusDays(5)));
+
+        String jwtToken = bearer(owner);
+
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\",\"version\":0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.description").value("Description"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Lost update\",\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void patchTask_ShouldReturn409_WhenStatusCannotTransition() throws Exception {
+        User owner = bulkUser();
+        Task task = taskRepository.saveAndFlush(bulkTask(owner, TaskStatus.DONE, LocalDate.now().plusDays(5)));
+
+        String jwtToken = bearer(owner);
+
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"TO_BE_DONE\",\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getAllTasks_ShouldAnswer304_UntilTheUsersTasksChange() throws Exception {
+        User owner = bulkUser();
+        String jwtToken = bearer(owner);
+
+        String etag = mockMvc.perform(get("/api/tasks/all").header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/all").header("Authorization", jwtToken).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Task task = new Task();
+        task.setTitle("New task");
+        task.setDescription("Description");
+        mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tasks/all").header("Authorization", jwtToken).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void getAllTasks_ShouldPageByCursor_WhenCursorRequested() throws Exception {
+        User owner = bulkUser();
+        for(int i = 0; i < 3; i++){
+            taskRepository.save(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now().plusDays(i)));
+        }
+        String jwtToken = bearer(owner);
+
+        String nextCursor = objectMapper.readTree(mockMvc.perform(get("/api/tasks/all")
+                                .param("cursor", "true")
+                                .param("size", "2")
+                                .header("Authorization", jwtToken))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(2))
+                        .andExpect(jsonPath("$.hasNext").value(true))
+                        .andReturn().getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/tasks/all")
+                        .param("cursor", "true")
+                        .param("after", nextCursor)
+                        .param("size", "2")
+                        .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("cursor", "true")
+                        .param("size", "2")
+                        .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getTaskById_ShouldUseTheRowVersionAsETag() throws Exception {
+        User owner = bulkUser();
+        Task task = taskRepository.saveAndFlush(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now().plusDays(5)));
+        String jwtToken = bearer(owner);
+        String etag = "\"" + task.getId() + "-0\"";
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("Authorization", jwtToken).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateStatusWhere_ShouldOnlyMoveCallersTasksAllowedToTransition() throws Exception {
+        User owner = bulkUser();
+        Task overdue = taskRepository.save(bulkTask(owner, TaskStatus.IN_PROGRESS, LocalDate.now()));
+        Task later = taskRepository.save(bulkTask(owner, TaskStatus.IN_PROGRESS, LocalDate.now().plusDays(30)));
+        Task notStarted = taskRepository.save(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now()));
+
+        String jwtToken = bearer(owner);
+
+        mockMvc.perform(patch("/api/tasks")
+                        .param("status", "DONE")
+                        .param("dueBefore", LocalDate.now().plusDays(1).toString())
+                        .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        mockMvc.perform(get("/api/tasks/{id}", overdue.getId()).header("Authorization", jwtToken))
+                .andExpect(jsonPath("$.status").value("DONE"));
+        mockMvc.perform(get("/api/tasks/{id}", later.getId()).header("Authorization", jwtToken))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+        mockMvc.perform(get("/api/tasks/{id}", notStarted.getId()).header("Authorization", jwtToken))
+                .andExpect(jsonPath("$.status").value("TO_BE_DONE"));
+    }
+
+    @Test
+    void updateStatusWhere_ShouldBumpVersion_SoStaleETagsAndPatchesAreRefused() throws Exception {
+        User owner = bulkUser();
+        Task task = taskRepository.saveAndFlush(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now().plusDays(5)));
+        String jwtToken = bearer(owner);
+        String staleEtag = "\"" + task.getId() + "-0\"";
+
+        mockMvc.perform(patch("/api/tasks")
+                        .param("status", "IN_PROGRESS")
+                        .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("Authorization", jwtToken).header("If-None-Match", staleEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + task.getId() + "-1\""))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                        .header("Authorization", jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"TO_BE_DONE\",\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void deleteWhere_ShouldRequireAFilter_AndDeleteMatchingTasks() throws Exception {
+        User owner = bulkUser();
+        taskRepository.save(bulkTask(owner, TaskStatus.DONE, LocalDate.now()));
+        taskRepository.save(bulkTask(owner, TaskStatus.TO_BE_DONE, LocalDate.now()));
+
+        String jwtToken = bearer(owner);
+
+        mockMvc.perform(delete("/api/tasks").header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/tasks")
+                        .param("status", "DONE")
+                        .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+    }
+
+    private String bearer(User user){
+        return "Bearer " + jwtUtil.generationToken(user);
+    }
+
+    private User testUser(){
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private User bulkUser(){
+        User user = new User();
+        user.setUsername("bulkuser");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private static Task bulkTask(User owner, TaskStatus status, LocalDate dueDate){
+        Task task = new Task();
+        task.setUser(owner);
+        task.setTitle("Bulk task");
+        task.setDescription("Description");
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        return task;
+    }
 }
@@ -68,7 +68,7 @@ public class UserControllerIntegrationTest {
 
         userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
 
         mockMvc.perform(get("/api/users")
@@ -83,7 +83,7 @@ public class UserControllerIntegrationTest {
         user.setUsername("maxime");
         user.setPassword("mypassword");
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(post("/api/users")
                 .header("Authorization", jwtToken)
@@ -101,7 +101,7 @@ public class UserControllerIntegrationTest {
 
         user=userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/{id}", user.getId())
                 .header("Authorization", jwtToken))
@@ -111,7 +111,7 @@ public class UserControllerIntegrationTest {
 
     @Test
     void getUserById_ShouldReturnNotFound() throws Exception{
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/{id}", 999L)
                 .header("Authorization", jwtToken))
@@ -125,7 +125,7 @@ public class UserControllerIntegrationTest {
         user.setPassword("pass");
         userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/by-username/{username}", "alice")
                         .header("Authorization", jwtToken))
@@ -135,7 +135,7 @@ public class UserControllerIntegrationTest {
 
     @Test
     void getUserByUsername_ShouldReturnNull() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/by-username/{username}", "bob")
                         .header("Authorization", jwtToken))
@@ -151,7 +151,7 @@ public class UserControllerIntegrationTest {
         user.setPassword("pass");
         user = userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(delete("/api/users/{id}", user.getId())
                         .header("Authorization", jwtToken))
@@ -160,7 +160,7 @@ public class UserControllerIntegrationTest {
 
     @Test
     void deleteUserById_ShouldReturnNotFound() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(delete("/api/users/{id}", 999L)
                         .header("Authorization", jwtToken))
@@ -174,7 +174,7 @@ public class UserControllerIntegrationTest {
         userRepository.save(user1);
         userRepository.save(user2);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/count")
                         .header("Authorization", jwtToken))
@@ -187,7 +187,7 @@ public class UserControllerIntegrationTest {
         User user = new User(); user.setUsername("existing"); user.setPassword("pass");
         userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(get("/api/users/exists").param("username", "existing")
                         .header("Authorization", jwtToken))
@@ -205,7 +205,7 @@ public class UserControllerIntegrationTest {
         User user = new User(); user.setUsername("toDelete"); user.setPassword("pass");
         userRepository.save(user);
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(delete("/api/users/by-username").param("username", "toDelete")
                         .header("Authorization", jwtToken))
@@ -214,7 +214,7 @@ public class UserControllerIntegrationTest {
 
     @Test
     void deleteUserByUsername_ShouldReturnNotFound() throws Exception {
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(delete("/api/users/by-username").param("username", "unknown")
                         .header("Authorization", jwtToken))
@@ -227,7 +227,7 @@ public class UserControllerIntegrationTest {
             setNewPassword("newpass");
         }});
 
-        String jwtToken = "Bearer " + jwtUtil.generationToken("testuser");
+        String jwtToken = bearer();
 
         mockMvc.perform(patch("/api/users/{username}/password", "unknown")
                         .header("Authorization", jwtToken)
@@ -235,4 +235,12 @@ public class UserControllerIntegrationTest {
                         .content(newPasswordJson))
                 .andExpect(status().isNotFound());
     }
+
+    // Any valid token will do; the caller is not one of the users under test
+    private String bearer(){
+        User caller = new User();
+        caller.setId(Long.MAX_VALUE);
+        caller.setUsername("testuser");
+        return "Bearer " + jwtUtil.generationToken(caller);
+    }
 }
@@ -0,0 +1,180 @@
+package com.example.taskmanager.dataset;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the generator commits on a connection of its own, next to the application's writes
+@SpringBootTest
+@Testcontainers
+public class DatasetGeneratorIntegrationTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2025, 6, 15);
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test")
+            .withUsername("user")
+            .withPassword("password");
+
+    static {
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void generate_ShouldLoadTheSpec_AndRebuildTheIndexes(){
+        Map<String, String> indexes = taskIndexes();
+        int defaultPartitionIndexes = partitionIndexCount("tasks_default");
+        DatasetSpec spec = DatasetSpec.of(40, 3000, 7, ANCHOR).withUsernamePrefix("loaded-");
+
+        DatasetGenerator.Dataset dataset = generate(spec);
+
+        assertEquals(40, dataset.users());
+        assertEquals(3000L, dataset.tasks());
+        assertEquals(40L, count("SELECT count(*) FROM users WHERE username LIKE 'loaded-%'"));
+        assertEquals(3000L, count("SELECT count(*) FROM tasks"));
+        assertEquals(3000L, count("SELECT count(*) FROM task_ids"));
+        assertEquals(0L, count("SELECT count(*) FROM tasks_default"));
+        assertEquals(0L, count("SELECT count(*) FROM tasks WHERE due_date < '" + spec.dueFrom()
+                + "' OR due_date > '" + spec.dueTo() + "'"));
+
+        // The load went into an empty table, so the indexes were dropped and built again after the copy
+        assertEquals(indexes, taskIndexes());
+        assertEquals(defaultPartitionIndexes, partitionIndexCount("tasks_default"));
+        assertEquals(0L, count("SELECT count(*) FROM pg_index WHERE NOT indisvalid"));
+        assertStatusCountsMatchTasks();
+    }
+
+    @Test
+    void generate_ShouldNotReuseIds_WhenTheApplicationWritesMeanwhile() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean loaded = new AtomicBoolean();
+        List<Long> userIds = new CopyOnWriteArrayList<>();
+        List<Long> taskIds = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            // Keeps writing through the load, and starts one more round once it is over
+            int n = 0;
+            boolean last;
+            do {
+                last = loaded.get();
+                User user = new User();
+                user.setUsername("writer-" + n);
+                user.setPassword("secret");
+                Long userId = userRepository.save(user).getId();
+                userIds.add(userId);
+                Task task = new Task();
+                task.setTitle("Written " + n);
+                task.setDescription("Description");
+                task.setDueDate(LocalDate.now().plusDays(1 + n % 30));
+                taskIds.add(taskService.createTask(task, userId).getId());
+                started.countDown();
+                n++;
+            } while(!last);
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        DatasetGenerator.Dataset dataset;
+        try {
+            dataset = generate(DatasetSpec.of(40, 3000, 7, ANCHOR).withUsernamePrefix("loaded-"));
+        } finally {
+            loaded.set(true);
+        }
+        writer.get(30, TimeUnit.SECONDS);
+
+        for(Long userId : userIds){
+            assertFalse(userId >= dataset.firstUserId() && userId < dataset.firstUserId() + dataset.users(),
+                    "user id " + userId + " is inside the loaded range");
+        }
+        for(Long taskId : taskIds){
+            assertFalse(taskId >= dataset.firstTaskId() && taskId < dataset.firstTaskId() + dataset.tasks(),
+                    "task id " + taskId + " is inside the loaded range");
+        }
+        assertEquals(40L + userIds.size(), count("SELECT count(*) FROM users"));
+        assertEquals(3000L + taskIds.size(), count("SELECT count(DISTINCT id) FROM tasks"));
+        assertEquals(3000L + taskIds.size(), count("SELECT count(*) FROM task_ids"));
+        assertStatusCountsMatchTasks();
+    }
+
+    private DatasetGenerator.Dataset generate(DatasetSpec spec){
+        try {
+            return new DatasetGenerator(dataSource).generate(spec);
+        } catch(Exception e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void assertStatusCountsMatchTasks(){
+        String counters = "SELECT user_id, status, task_count FROM task_status_counts WHERE task_count > 0";
+        String tasks = "SELECT user_id, status, count(*) FROM tasks GROUP BY user_id, status";
+        assertEquals(0L, count("SELECT count(*) FROM (" + counters + " EXCEPT " + tasks + ") missing"));
+        assertEquals(0L, count("SELECT count(*) FROM (" + tasks + " EXCEPT " + counters + ") extra"));
+    }
+
+    private Map<String, String> taskIndexes(){
+        return jdbcTemplate.queryForList("SELECT indexname, indexdef FROM pg_indexes WHERE tablename = 'tasks'").stream()
+                .collect(Collectors.toMap(row -> (String) row.get("indexname"), row -> (String) row.get("indexdef")));
+    }
+
+    private int partitionIndexCount(String partition){
+        return (int) count("SELECT count(*) FROM pg_indexes WHERE tablename = '" + partition + "'");
+    }
+
+    private long count(String sql){
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskmanager.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetRowsTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2025, 6, 15);
+
+    @Test
+    void rows_ShouldBeIdenticalForTheSameSeed() throws IOException {
+        DatasetSpec spec = DatasetSpec.of(200, 5000, 7, ANCHOR);
+
+        assertEquals(tasks(spec), tasks(spec));
+        assertNotEquals(tasks(spec), tasks(DatasetSpec.of(200, 5000, 8, ANCHOR)));
+    }
+
+    @Test
+    void taskCounts_ShouldAddUpAndBeSkewed(){
+        DatasetSpec spec = DatasetSpec.of(1000, 100_000, 42, ANCHOR);
+        DatasetRows rows = new DatasetRows(spec);
+
+        int[] counts = IntStream.range(0, spec.users()).map(rows::taskCount).toArray();
+
+        assertEquals(spec.tasks(), Arrays.stream(counts).asLongStream().sum());
+        // Zipf(1): the busiest user holds about 1/H(1000) ≈ 13% of all tasks, the median user a handful
+        assertTrue(Arrays.stream(counts).max().orElseThrow() > 10_000);
+        assertTrue(Arrays.stream(counts).sorted().toArray()[spec.users() / 2] < 100);
+    }
+
+    @Test
+    void tasks_ShouldFollowStatusSkewAndStayInDueDateRange() throws IOException {
+        DatasetSpec spec = DatasetSpec.of(100, 20_000, 42, ANCHOR);
+        String[] lines = tasks(spec).split("\n");
+
+        Map<String, Long> byStatus = Arrays.stream(lines).map(line -> line.split("\t")[4])
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        // DONE (2) > TO_BE_DONE (0) > IN_PROGRESS (1)
+        assertTrue(byStatus.get("2") > byStatus.get("0"));
+        assertTrue(byStatus.get("0") > byStatus.get("1"));
+        for(String line : lines){
+            LocalDate due = LocalDate.parse(line.split("\t")[5]);
+            assertFalse(due.isBefore(spec.dueFrom()) || due.isAfter(spec.dueTo()));
+        }
+    }
+
+    @Test
+    void tasks_ShouldHaveConsecutiveIdsFromTheFirstOne() throws IOException {
+        DatasetRows rows = new DatasetRows(DatasetSpec.of(10, 500, 1, ANCHOR));
+        StringBuilder out = new StringBuilder();
+        rows.writeTasks(100, 5001, out);
+
+        long[] ids = Arrays.stream(out.toString().split("\n")).mapToLong(line -> Long.parseLong(line.split("\t")[0])).toArray();
+
+        assertArrayEquals(IntStream.range(0, 500).mapToLong(i -> 5001 + i).toArray(), ids);
+    }
+
+    @Test
+    void statusCounts_ShouldMatchTheTasksWritten() throws IOException {
+        DatasetRows rows = new DatasetRows(DatasetSpec.of(50, 2000, 3, ANCHOR));
+        StringBuilder tasks = new StringBuilder();
+        rows.writeTasks(1, 1, tasks);
+        StringBuilder counts = new StringBuilder();
+        rows.writeStatusCounts(1, counts);
+
+        Map<String, Long> expected = Arrays.stream(tasks.toString().split("\n"))
+                .map(line -> line.split("\t"))
+                .collect(Collectors.groupingBy(columns -> columns[1] + "\t" + columns[4], Collectors.counting()));
+        Map<String, Long> actual = Arrays.stream(counts.toString().split("\n"))
+                .map(line -> line.split("\t"))
+                .collect(Collectors.toMap(columns -> columns[0] + "\t" + columns[1], columns -> Long.parseLong(columns[2])));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void statusCounts_ShouldThrow_WhenTasksNotWrittenYet(){
+        DatasetRows rows = new DatasetRows(DatasetSpec.of(5, 10, 1, ANCHOR));
+
+        assertThrows(IllegalStateException.class, () -> rows.writeStatusCounts(1, new StringBuilder()));
+    }
+
+    @Test
+    void of_ShouldPlaceDueDatesAroundTheAnchor(){
+        DatasetSpec spec = DatasetSpec.of(10, 100, 1, ANCHOR);
+
+        assertEquals(LocalDate.of(2022, 6, 15), spec.dueFrom());
+        assertEquals(LocalDate.of(2026, 6, 15), spec.dueTo());
+    }
+
+    @Test
+    void spec_ShouldRejectDueRangeEndingBeforeItStarts(){
+        LocalDate from = DatasetSpec.defaultDueFrom(ANCHOR);
+        assertThrows(IllegalArgumentException.class, () -> new DatasetSpec(1, 1, 1, 1, from, from.minusDays(1),
+                1, "user", "password"));
+    }
+
+    private static String tasks(DatasetSpec spec) throws IOException {
+        StringBuilder out = new StringBuilder();
+        new DatasetRows(spec).writeTasks(1, 1, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.taskmanager.load;
+
+import com.example.taskmanager.TaskmanagerApplication;
+import com.example.taskmanager.dataset.DatasetGenerator;
+import com.example.taskmanager.dataset.DatasetSpec;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test: boots the application on an embedded PostgreSQL (or targets a running instance), bulk-loads
+ * the workload's background dataset, prepares users and tasks over the API, then replays a {@link Workload} phase
+ * by phase and reports latency percentiles.
+ * <p>
+ * Arrivals follow an open model: requests are issued on a fixed schedule whatever the response times, and each
+ * latency is measured from the request's intended start, so a stalled server shows up in the percentiles instead
+ * of slowing the generator down (coordinated omission). Arrivals beyond {@code max-in-flight} are dropped and
+ * counted as failures.
+ * <p>
+ * Usage: {@code mvn -Pload test-compile exec:exec [-Dload.workload=login-storm] [-Dload.args=target=http://host:8080]}.
+ * Exits with 1 when an SLO of the workload is missed.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String PASSWORD = "load-test-secret";
+
+    private final Workload workload;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final List<LoadUser> users = new ArrayList<>();
+
+    LoadGenerator(Workload workload, String baseUrl){
+        this.workload=workload;
+        this.baseUrl=baseUrl;
+        this.client=HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String workloadName = "mixed";
+        String target = null;
+        for(String arg : args){
+            if(arg.isBlank()){
+                continue;
+            }
+            if(arg.startsWith("target=")){
+                target = arg.substring("target=".length());
+            } else {
+                workloadName = arg;
+            }
+        }
+        Workload workload = Workload.load(workloadName);
+
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext app = null;
+        if(target == null){
+            postgres = EmbeddedPostgres.builder().start();
+            app = new SpringApplicationBuilder(TaskmanagerApplication.class).run(
+                    "--server.port=0",
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                    "--spring.r2dbc.username=postgres",
+                    "--spring.r2dbc.password=postgres",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN");
+            target = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            if(workload.datasetUsers() > 0){
+                DatasetGenerator.Dataset dataset = new DatasetGenerator(postgres.getPostgresDatabase()).generate(
+                        DatasetSpec.of(workload.datasetUsers(), workload.datasetTasks(), workload.seed(),
+                                LocalDate.now()));
+                System.out.printf("Loaded a dataset of %d users and %d tasks in %d ms%n",
+                        dataset.users(), dataset.tasks(), dataset.elapsed().toMillis());
+            }
+        } else if(workload.datasetUsers() > 0){
+            System.out.println("Not loading dataset.* into " + target + ": use the dataset profile there instead");
+        }
+
+        List<String> misses;
+        try {
+            LoadGenerator generator = new LoadGenerator(workload, target);
+            generator.prepare();
+            LoadReport report = generator.run();
+            misses = report.write(Path.of("target", "load", workload.name()), System.out);
+        } finally {
+            if(app != null){
+                app.close();
+            }
+            if(postgres != null){
+                postgres.close();
+            }
+        }
+        System.exit(misses.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Registers and logs in the workload's users, then gives each of them {@code tasks-per-user} tasks.
+     */
+    void prepare() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for(int i = 0; i < workload.users(); i++){
+            String username = "load-" + run + "-" + i;
+            String credentials = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+            expectOk(send(post("/api/auth/register", credentials, null)), "register " + username);
+            String token = expectOk(send(post("/api/auth/login", credentials, null)), "login " + username);
+            LoadUser user = new LoadUser(credentials, token);
+            for(int t = 0; t < workload.tasksPerUser(); t++){
+                user.taskIds.add(createdId(expectOk(send(post("/api/tasks", newTask(t), token)), "create task")));
+            }
+            users.add(user);
+        }
+        System.out.printf("Prepared %d users with %d tasks each against %s%n", workload.users(), workload.tasksPerUser(), baseUrl);
+    }
+
+    LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport(workload);
+        SplittableRandom random = new SplittableRandom(workload.seed());
+        Semaphore inFlight = new Semaphore(workload.maxInFlight());
+        for(Workload.Phase phase : workload.phases()){
+            System.out.printf("Phase %s: %s at %.0f arrivals/s%n", phase.name(), phase.duration(), phase.arrivalsPerSecond());
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / phase.arrivalsPerSecond());
+            long start = System.nanoTime();
+            long end = start + phase.duration().toNanos();
+            for(long i = 0; ; i++){
+                long intendedStart = start + i * interval;
+                if(intendedStart >= end){
+                    break;
+                }
+                long wait;
+                while((wait = intendedStart - System.nanoTime()) > 0){
+                    LockSupport.parkNanos(wait);
+                }
+                Workload.Operation operation = workload.pick(random);
+                LoadReport.Stats stats = report.stats(phase, operation);
+                if(!inFlight.tryAcquire()){
+                    stats.dropped.incrementAndGet();
+                    continue;
+                }
+                LoadUser user = users.get(random.nextInt(users.size()));
+                request(operation, user, random).whenComplete((response, error) -> {
+                    stats.record(System.nanoTime() - intendedStart, error == null && response.statusCode() / 100 == 2);
+                    if(error == null && operation == Workload.Operation.CREATE && response.statusCode() == 201){
+                        user.taskIds.add(createdId(response.body()));
+                    }
+                    inFlight.release();
+                });
+            }
+        }
+        if(!inFlight.tryAcquire(workload.maxInFlight(), 30, TimeUnit.SECONDS)){
+            System.out.println("Gave up waiting for " + (workload.maxInFlight() - inFlight.availablePermits()) + " requests");
+        }
+        return report;
+    }
+
+    private CompletableFuture<HttpResponse<String>> request(Workload.Operation operation, LoadUser user, SplittableRandom random){
+        HttpRequest request = switch(operation){
+            case LOGIN -> post("/api/auth/login", user.credentials, null);
+            case LIST -> get("/api/tasks/all?size=20", user.token);
+            case CREATE -> post("/api/tasks", newTask(random.nextInt(1000)), user.token);
+            // TO_BE_DONE and IN_PROGRESS can move to each other, so every patch is a valid transition
+            case PATCH_STATUS -> patch("/api/tasks/" + user.taskIds.get(random.nextInt(user.taskIds.size()))
+                    + "/status?status=" + (random.nextBoolean() ? "TO_BE_DONE" : "IN_PROGRESS"), user.token);
+        };
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String token){
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, String token){
+        return builder(path, token).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest patch(String path, String token){
+        return builder(path, token).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token){
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private static String newTask(int n){
+        return "{\"title\":\"Load task " + n + "\",\"description\":\"Created by the load generator\","
+                + "\"status\":\"TO_BE_DONE\",\"dueDate\":\"" + LocalDate.now().plusDays(1 + n % 60) + "\"}";
+    }
+
+    private static String expectOk(HttpResponse<String> response, String what){
+        if(response.statusCode() / 100 != 2){
+            throw new IllegalStateException(what + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static Long createdId(String body){
+        Matcher matcher = ID.matcher(body);
+        if(!matcher.find()){
+            throw new IllegalStateException("No task id in " + body);
+        }
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private record LoadUser(String credentials, String token, List<Long> taskIds) {
+
+        LoadUser(String credentials, String token){
+            this(credentials, token, new CopyOnWriteArrayList<>());
+        }
+    }
+}
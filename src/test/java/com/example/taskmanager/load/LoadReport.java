@@ -0,0 +1,125 @@
+package com.example.taskmanager.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms and error counts per phase and operation. Latencies are recorded in nanoseconds; reports are
+ * in milliseconds. Each histogram is also written as an HdrHistogram percentile distribution ({@code .hgrm}), which
+ * can be plotted or compared between runs.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(2);
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final Workload workload;
+    private final Map<String, Map<Workload.Operation, Stats>> phases = new LinkedHashMap<>();
+
+    LoadReport(Workload workload){
+        this.workload=workload;
+        for(Workload.Phase phase : workload.phases()){
+            Map<Workload.Operation, Stats> stats = new EnumMap<>(Workload.Operation.class);
+            for(Workload.Operation operation : Workload.Operation.values()){
+                stats.put(operation, new Stats());
+            }
+            phases.put(phase.name(), stats);
+        }
+    }
+
+    Stats stats(Workload.Phase phase, Workload.Operation operation){
+        return phases.get(phase.name()).get(operation);
+    }
+
+    /**
+     * Writes the summary and the {@code .hgrm} files to {@code directory} and returns the SLO misses, empty when
+     * every SLO of {@link Workload#sloPhase()} held.
+     */
+    List<String> write(Path directory, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        StringBuilder summary = new StringBuilder();
+        for(Workload.Phase phase : workload.phases()){
+            summary.append(String.format("%nphase %s: %s at %.0f arrivals/s%n", phase.name(), phase.duration(), phase.arrivalsPerSecond()));
+            summary.append(String.format("%-13s %8s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                    "operation", "count", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for(Map.Entry<Workload.Operation, Stats> entry : phases.get(phase.name()).entrySet()){
+                Stats stats = entry.getValue();
+                Histogram histogram = stats.latencies;
+                if(histogram.getTotalCount() == 0 && stats.errors.get() == 0 && stats.dropped.get() == 0){
+                    continue;
+                }
+                summary.append(String.format("%-13s %8d %9.1f %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        entry.getKey().key, histogram.getTotalCount(),
+                        histogram.getTotalCount() / (phase.duration().toNanos() / 1e9),
+                        stats.errors.get(), stats.dropped.get(),
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / NANOS_PER_MILLI));
+                try(PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                        directory.resolve(phase.name() + "-" + entry.getKey().key + ".hgrm")), false, StandardCharsets.UTF_8)){
+                    histogram.outputPercentileDistribution(hgrm, NANOS_PER_MILLI);
+                }
+            }
+        }
+        List<String> misses = sloMisses();
+        summary.append(misses.isEmpty() ? "\nSLOs met on phase " + workload.sloPhase() + "\n"
+                : "\nSLOs missed on phase " + workload.sloPhase() + ":\n  " + String.join("\n  ", misses) + "\n");
+        out.print(summary);
+        Files.writeString(directory.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+        return misses;
+    }
+
+    private List<String> sloMisses(){
+        List<String> misses = new ArrayList<>();
+        Map<Workload.Operation, Stats> phase = phases.get(workload.sloPhase());
+        if(phase == null){
+            misses.add("slo.phase " + workload.sloPhase() + " is not a phase of the workload");
+            return misses;
+        }
+        long requests = 0;
+        long failures = 0;
+        for(Map.Entry<Workload.Operation, Stats> entry : phase.entrySet()){
+            Stats stats = entry.getValue();
+            requests += stats.latencies.getTotalCount() + stats.dropped.get();
+            failures += stats.errors.get() + stats.dropped.get();
+            Double p99 = workload.p99SloMillis().get(entry.getKey());
+            if(p99 != null && stats.latencies.getTotalCount() > 0 && millis(stats.latencies, 99) > p99){
+                misses.add(String.format("%s p99 %.1f ms > %.1f ms", entry.getKey().key, millis(stats.latencies, 99), p99));
+            }
+        }
+        double errorRate = requests == 0 ? 0 : (double) failures / requests;
+        if(errorRate > workload.maxErrorRate()){
+            misses.add(String.format("error rate %.4f > %.4f", errorRate, workload.maxErrorRate()));
+        }
+        return misses;
+    }
+
+    private static double millis(Histogram histogram, double percentile){
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    static final class Stats {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        void record(long latencyNanos, boolean ok){
+            latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE));
+            if(!ok){
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
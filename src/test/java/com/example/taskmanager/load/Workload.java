@@ -0,0 +1,110 @@
+package com.example.taskmanager.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * A load script: phases with their arrival rates, the operation mix, the users to prepare and the SLOs to check.
+ * Scripts are properties files, either {@code src/test/resources/load/<name>.properties} or a path.
+ */
+record Workload(String name, List<Phase> phases, Map<Operation, Integer> mix, int users, int tasksPerUser,
+                int datasetUsers, long datasetTasks, int maxInFlight, long seed, String sloPhase, double maxErrorRate,
+                Map<Operation, Double> p99SloMillis) {
+
+    record Phase(String name, Duration duration, double arrivalsPerSecond) {
+    }
+
+    enum Operation {
+        LOGIN("login"), LIST("list"), CREATE("create"), PATCH_STATUS("patch-status");
+
+        final String key;
+
+        Operation(String key){
+            this.key=key;
+        }
+    }
+
+    static Workload load(String nameOrPath) throws IOException {
+        Properties properties = new Properties();
+        Path path = Path.of(nameOrPath);
+        if(Files.isRegularFile(path)){
+            try(Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)){
+                properties.load(reader);
+            }
+        } else {
+            try(InputStream in = Workload.class.getResourceAsStream("/load/" + nameOrPath + ".properties")){
+                if(in == null){
+                    throw new IllegalArgumentException("No workload " + nameOrPath + " (neither a file nor src/test/resources/load/"
+                            + nameOrPath + ".properties)");
+                }
+                properties.load(in);
+            }
+        }
+        String name = path.getFileName().toString().replaceFirst("\\.properties$", "");
+        return parse(name, properties);
+    }
+
+    static Workload parse(String name, Properties properties){
+        List<Phase> phases = new ArrayList<>();
+        for(String phase : required(properties, "phases").split(",")){
+            String[] parts = phase.trim().split(":");
+            if(parts.length != 3){
+                throw new IllegalArgumentException("Phase '" + phase.trim() + "' is not name:duration:arrivals-per-second");
+            }
+            phases.add(new Phase(parts[0], Duration.parse(parts[1]), Double.parseDouble(parts[2])));
+        }
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        Map<Operation, Double> p99 = new EnumMap<>(Operation.class);
+        for(Operation operation : Operation.values()){
+            mix.put(operation, Integer.parseInt(properties.getProperty("mix." + operation.key, "0").trim()));
+            String slo = properties.getProperty("slo." + operation.key + ".p99-ms");
+            if(slo != null){
+                p99.put(operation, Double.parseDouble(slo.trim()));
+            }
+        }
+        if(mix.values().stream().mapToInt(Integer::intValue).sum() <= 0){
+            throw new IllegalArgumentException("The mix.* weights must add up to more than 0");
+        }
+        return new Workload(name, phases, mix,
+                Integer.parseInt(properties.getProperty("users", "50").trim()),
+                Integer.parseInt(properties.getProperty("tasks-per-user", "20").trim()),
+                Integer.parseInt(properties.getProperty("dataset.users", "0").trim()),
+                Long.parseLong(properties.getProperty("dataset.tasks", "0").trim()),
+                Integer.parseInt(properties.getProperty("max-in-flight", "2000").trim()),
+                Long.parseLong(properties.getProperty("seed", "42").trim()),
+                properties.getProperty("slo.phase", phases.get(phases.size() - 1).name()).trim(),
+                Double.parseDouble(properties.getProperty("slo.max-error-rate", "1").trim()),
+                p99);
+    }
+
+    Operation pick(SplittableRandom random){
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+        for(Map.Entry<Operation, Integer> weight : mix.entrySet()){
+            ticket -= weight.getValue();
+            if(ticket < 0){
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private static String required(Properties properties, String key){
+        String value = properties.getProperty(key);
+        if(value == null || value.isBlank()){
+            throw new IllegalArgumentException("Workload property '" + key + "' is required");
+        }
+        return value;
+    }
+}
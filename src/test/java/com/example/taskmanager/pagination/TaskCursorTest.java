@@ -0,0 +1,95 @@
+package com.example.taskmanager.pagination;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCursorTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTrip(){
+        TaskSummary task = new TaskSummary(42L, "a|b", "description", TaskStatus.TO_BE_DONE, LocalDate.of(2030, 1, 15), 0L);
+
+        TaskCursor cursor = TaskCursor.of(task, "dueDate", Sort.Direction.DESC);
+        TaskCursor decoded = TaskCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(LocalDate.of(2030, 1, 15), decoded.key());
+    }
+
+    @Test
+    void encodeDecode_ShouldKeepNullSortKey(){
+        TaskSummary task = new TaskSummary(7L, "title", "description", TaskStatus.TO_BE_DONE, null, 0L);
+
+        TaskCursor decoded = TaskCursor.decode(TaskCursor.of(task, "dueDate", Sort.Direction.ASC).encode());
+
+        assertNull(decoded.key());
+        assertEquals(7L, decoded.id());
+    }
+
+    @Test
+    void decode_ShouldThrow_WhenTokenIsGarbage(){
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not-a-cursor"));
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+
+    @Test
+    void decode_ShouldThrow_WhenSortKeyOrIdIsMalformed(){
+        String badDate = encodeRaw("dueDate|ASC|5|=2030-13-45");
+        String badId = encodeRaw("dueDate|ASC|five|=2030-01-15");
+
+        assertEquals("Invalid cursor", assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(badDate)).getMessage());
+        assertEquals("Invalid cursor", assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(badId)).getMessage());
+    }
+
+    @Test
+    void decode_ShouldRestoreStatusAsEnum(){
+        TaskSummary task = new TaskSummary(9L, "title", "description", TaskStatus.IN_PROGRESS, null, 0L);
+
+        TaskCursor decoded = TaskCursor.decode(TaskCursor.of(task, "status", Sort.Direction.ASC).encode());
+
+        assertEquals(TaskStatus.IN_PROGRESS, decoded.key());
+    }
+
+    @Test
+    void cursorRequest_ShouldRejectUnsupportedSort(){
+        assertThrows(IllegalArgumentException.class, () -> CursorRequest.of(null, "user", "asc", 10));
+    }
+
+    @Test
+    void cursorRequest_ShouldUseCursorSort_WhenAfterIsGiven(){
+        TaskSummary task = new TaskSummary(3L, "title", "description", TaskStatus.DONE, null, 0L);
+        String after = TaskCursor.of(task, "title", Sort.Direction.DESC).encode();
+
+        CursorRequest request = CursorRequest.of(after, "id", "asc", 5);
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "title").and(Sort.by(Sort.Direction.DESC, "id")), request.sort());
+    }
+
+    @Test
+    void cursorPage_ShouldExposeNextCursor_WhenExtraRowFetched(){
+        CursorRequest request = CursorRequest.of(null, "id", "asc", 2);
+        List<TaskSummary> rows = List.of(
+                new TaskSummary(1L, "t1", "d1", TaskStatus.TO_BE_DONE, null, 0L),
+                new TaskSummary(2L, "t2", "d2", TaskStatus.TO_BE_DONE, null, 0L),
+                new TaskSummary(3L, "t3", "d3", TaskStatus.TO_BE_DONE, null, 0L));
+
+        CursorPage<TaskSummary> page = CursorPage.of(rows, request);
+
+        assertTrue(page.hasNext());
+        assertEquals(2, page.content().size());
+        assertEquals(2L, TaskCursor.decode(page.nextCursor()).id());
+    }
+
+    private static String encodeRaw(String raw){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.taskmanager.query;
+
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.entity.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskQueryPlannerTest {
+
+    private final TaskQueryPlanner planner = new TaskQueryPlanner();
+
+    @Test
+    void plan_ShouldUseOwnerIndexWithFullPrefix_WhenOwnerStatusAndDueRangeGiven(){
+        TaskFilter filter = new TaskFilter();
+        filter.setOwner("maxime");
+        filter.setStatus(List.of(TaskStatus.TO_BE_DONE, TaskStatus.IN_PROGRESS));
+        filter.setDueFrom(LocalDate.of(2030, 1, 1));
+
+        TaskQueryPlan plan = planner.plan(filter);
+
+        assertEquals(TaskAccessPath.OWNER_STATUS_DUE, plan.accessPath());
+        assertEquals("idx_tasks_user_status_due(user_id,status,due_date)", plan.describe());
+    }
+
+    @Test
+    void plan_ShouldStopPrefixAtFirstMissingColumn(){
+        TaskFilter filter = new TaskFilter();
+        filter.setOwner("maxime");
+        filter.setDueTo(LocalDate.of(2030, 1, 1));
+
+        TaskQueryPlan plan = planner.plan(filter);
+
+        assertEquals(List.of("user_id"), plan.indexColumns());
+    }
+
+    @Test
+    void plan_ShouldUseStatusIndex_WhenNoOwner(){
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(List.of(TaskStatus.DONE));
+        filter.setSearch("report");
+
+        assertEquals(TaskAccessPath.STATUS_DUE, planner.plan(filter).accessPath());
+    }
+
+    @Test
+    void plan_ShouldUseDueDateIndex_WhenOnlyDueDateGiven(){
+        TaskFilter filter = new TaskFilter();
+        filter.setDueDate(LocalDate.of(2030, 1, 1));
+
+        assertEquals(TaskAccessPath.DUE_DATE, planner.plan(filter).accessPath());
+    }
+
+    @Test
+    void plan_ShouldFallBackToFullScan_WhenOnlyTextGiven(){
+        TaskFilter filter = new TaskFilter();
+        filter.setSearch("report");
+
+        assertEquals("seq_scan", planner.plan(filter).describe());
+    }
+
+    @Test
+    void plan_ShouldThrow_WhenDueRangeIsInverted(){
+        TaskFilter filter = new TaskFilter();
+        filter.setDueFrom(LocalDate.of(2030, 2, 1));
+        filter.setDueTo(LocalDate.of(2030, 1, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(filter));
+    }
+}
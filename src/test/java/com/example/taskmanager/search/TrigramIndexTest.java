@@ -0,0 +1,55 @@
+package com.example.taskmanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    @Test
+    void candidates_ShouldContainEveryTextWithTheSubstring(){
+        TrigramIndex index = new TrigramIndex();
+        index.add(3L, "Write weekly report");
+        index.add(1L, "Prepare REPORTING dashboard");
+        index.add(2L, "Buy groceries");
+
+        assertArrayEquals(new long[]{1L, 3L}, index.candidates("report"));
+    }
+
+    @Test
+    void candidates_ShouldReturnEmpty_WhenATrigramIsUnknown(){
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Buy groceries");
+
+        assertEquals(0, index.candidates("xyz").length);
+    }
+
+    @Test
+    void candidates_ShouldReturnNull_WhenKeywordIsShorterThanATrigram(){
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Buy groceries");
+
+        assertNull(index.candidates("gr"));
+    }
+
+    @Test
+    void remove_ShouldDropIdFromPostings(){
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Write report");
+        index.add(2L, "Review report");
+
+        index.remove(1L, "Write report");
+
+        assertArrayEquals(new long[]{2L}, index.candidates("report"));
+    }
+
+    @Test
+    void add_ShouldKeepPostingsSorted_WhenIdsArriveOutOfOrder(){
+        TrigramIndex index = new TrigramIndex();
+        for(long id : new long[]{50L, 10L, 30L, 20L, 40L, 10L}){
+            index.add(id, "standup");
+        }
+
+        assertArrayEquals(new long[]{10L, 20L, 30L, 40L, 50L}, index.candidates("stand"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.entity.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    void extractUser_ShouldReturnIdAndRoles_FromUserToken(){
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("maxime");
+        user.setRoles(Set.of("USER", "ADMIN"));
+
+        AuthenticatedUser authenticated = jwtUtil.extractUser(jwtUtil.generationToken(user));
+
+        assertEquals(7L, authenticated.id());
+        assertEquals("maxime", authenticated.getName());
+        assertEquals(Set.of("USER", "ADMIN"), authenticated.roles());
+    }
+
+    @Test
+    void extractUser_ShouldReturnNoRoles_ForUserWithoutRoles(){
+        User user = new User();
+        user.setId(8L);
+        user.setUsername("maxime");
+
+        AuthenticatedUser authenticated = jwtUtil.extractUser(jwtUtil.generationToken(user));
+
+        assertEquals(8L, authenticated.id());
+        assertTrue(authenticated.roles().isEmpty());
+    }
+
+    @Test
+    void extractUser_ShouldReject_TokenSignedWithAnotherKey(){
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("maxime");
+        String foreign = new JwtUtil().generationToken(user);
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractUser(foreign));
+    }
+}
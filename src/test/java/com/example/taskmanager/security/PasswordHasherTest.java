@@ -0,0 +1,56 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown(){
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void verifyAsync_ShouldMatchEncodedPassword_WithoutUpgrade(){
+        passwordHasher = new PasswordHasher(4, 1, 4, meterRegistry);
+
+        String hash = passwordHasher.encodeAsync("secret").join();
+        PasswordHasher.Verification verification = passwordHasher.verifyAsync("secret", hash).join();
+
+        assertTrue(verification.matches());
+        assertNull(verification.upgradedHash());
+        assertFalse(passwordHasher.verifyAsync("wrong", hash).join().matches());
+        assertEquals(2, meterRegistry.get("taskmanager.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void verifyAsync_ShouldRehash_WhenStoredCostIsLowerThanConfigured(){
+        passwordHasher = new PasswordHasher(5, 1, 4, meterRegistry);
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHasher.Verification verification = passwordHasher.verifyAsync("secret", weak).join();
+
+        assertTrue(verification.matches());
+        assertTrue(verification.upgradedHash().startsWith("$2a$05$"));
+        assertTrue(passwordHasher.matches("secret", verification.upgradedHash()));
+    }
+
+    @Test
+    void encodeAsync_ShouldRejectAtOnce_WhenQueueIsFull(){
+        passwordHasher = new PasswordHasher(12, 1, 1, meterRegistry);
+
+        passwordHasher.encodeAsync("running");
+        passwordHasher.encodeAsync("queued");
+
+        assertThrows(PasswordHashingBusyException.class, () -> passwordHasher.encodeAsync("rejected"));
+        assertEquals(1, meterRegistry.get("taskmanager.password.rejected").counter().count());
+    }
+}
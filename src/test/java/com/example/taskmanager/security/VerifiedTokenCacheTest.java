@@ -0,0 +1,63 @@
+package com.example.taskmanager.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T12:00:00Z");
+    private static final AuthenticatedUser MAXIME = new AuthenticatedUser(1L, "maxime", Set.of());
+
+    private JwtUtil jwtUtil;
+    private AtomicLong nanos;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp(){
+        jwtUtil = mock(JwtUtil.class);
+        nanos = new AtomicLong();
+        cache = new VerifiedTokenCache(jwtUtil, 100, Clock.fixed(NOW, ZoneOffset.UTC), nanos::get);
+    }
+
+    @Test
+    void authenticate_ShouldVerifyOnce_ForRepeatedToken(){
+        when(jwtUtil.verify("token")).thenReturn(new JwtUtil.VerifiedToken(MAXIME, NOW.plusSeconds(3600)));
+
+        assertEquals(MAXIME, cache.authenticate("token"));
+        assertEquals(MAXIME, cache.authenticate("token"));
+
+        verify(jwtUtil, times(1)).verify("token");
+    }
+
+    @Test
+    void authenticate_ShouldVerifyAgain_OnceTokenHasExpired(){
+        when(jwtUtil.verify("token")).thenReturn(new JwtUtil.VerifiedToken(MAXIME, NOW.plusSeconds(60)));
+        cache.authenticate("token");
+
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.authenticate("token");
+
+        verify(jwtUtil, times(2)).verify("token");
+    }
+
+    @Test
+    void authenticate_ShouldNotCache_RejectedToken(){
+        when(jwtUtil.verify("forged")).thenThrow(new JwtException("bad signature"));
+
+        assertThrows(JwtException.class, () -> cache.authenticate("forged"));
+        assertThrows(JwtException.class, () -> cache.authenticate("forged"));
+
+        verify(jwtUtil, times(2)).verify("forged");
+    }
+}
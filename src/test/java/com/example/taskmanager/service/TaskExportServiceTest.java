@@ -0,0 +1,62 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskExportServiceTest {
+
+    private TaskRepository taskRepository;
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository = mock(TaskRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        taskExportService = new TaskExportService(taskRepository, objectMapper);
+        when(taskRepository.streamByOwner(1L)).thenReturn(Stream.of(
+                new TaskSummary(1L, "Plain", null, TaskStatus.TO_BE_DONE, LocalDate.of(2030, 1, 15), 0L),
+                new TaskSummary(2L, "Say \"hi\", then", "two\nlines", TaskStatus.DONE, null, 0L)));
+    }
+
+    @Test
+    void export_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.export(1L, TaskExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].contains("\"description\":\"two\\nlines\""));
+    }
+
+    @Test
+    void export_ShouldQuoteCsvFields_WhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.export(1L, TaskExportService.Format.CSV, out);
+
+        assertEquals("id,title,description,status,dueDate\r\n"
+                + "1,Plain,,TO_BE_DONE,2030-01-15\r\n"
+                + "2,\"Say \"\"hi\"\", then\",\"two\nlines\",DONE,\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void format_ShouldRejectUnknownValues(){
+        assertEquals(TaskExportService.Format.CSV, TaskExportService.Format.from("csv"));
+        assertThrows(IllegalArgumentException.class, () -> TaskExportService.Format.from("xml"));
+    }
+}
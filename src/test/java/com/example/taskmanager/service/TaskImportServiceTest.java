@@ -0,0 +1,108 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.search.TaskTrigramIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskImportServiceTest {
+
+    private TaskRepository taskRepository;
+    private TaskStatusCountService taskStatusCountService;
+    private TaskImportService taskImportService;
+    private User user;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository = mock(TaskRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        taskStatusCountService = mock(TaskStatusCountService.class);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("maxime");
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        taskImportService = new TaskImportService(taskRepository, userRepository, taskStatusCountService,
+                mock(TaskListVersionService.class),
+                mock(TaskTrigramIndex.class), new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTasks_ShouldInsertValidRows_AndReportInvalidOnes() throws Exception {
+        String body = """
+                {"id":99,"title":"First","description":"d1","status":"DONE"}
+                {"title":"Broken",
+                
+                {"title":"","description":"d3"}
+                {"title":"Fourth","description":"d4"}
+                """;
+
+        TaskImportResult result = taskImportService.importTasks(stream(body), 1L);
+
+        assertEquals(2, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(2, result.errors().get(0).line());
+        assertEquals(4, result.errors().get(1).line());
+        assertEquals("title: Title cannot be empty", result.errors().get(1).message());
+
+        ArgumentCaptor<List<Task>> saved = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(saved.capture());
+        Task first = saved.getValue().get(0);
+        assertNull(first.getId());
+        assertSame(user, first.getUser());
+        assertEquals(TaskStatus.DONE, first.getStatus());
+        assertEquals(TaskStatus.TO_BE_DONE, saved.getValue().get(1).getStatus());
+        verify(taskStatusCountService).added(anyList());
+    }
+
+    @Test
+    void importTasks_ShouldKeepGoing_WhenAChunkFails() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for(int i = 0; i < TaskImportService.CHUNK_SIZE + 1; i++){
+            body.append("{\"title\":\"t").append(i).append("\",\"description\":\"d\"}\n");
+        }
+        // The first chunk fails as a whole; retried row by row, only its third row (line 3) is refused again
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            if(tasks.size() > 1 || tasks.get(0).getTitle().equals("t2")){
+                throw new DataIntegrityViolationException("boom", new SQLException("ERROR: value too long\n  Detail: row t2"));
+            }
+            return tasks;
+        });
+
+        TaskImportResult result = taskImportService.importTasks(stream(body.toString()), 1L);
+
+        assertEquals(TaskImportService.CHUNK_SIZE, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals(3, result.errors().get(0).line());
+        assertEquals("Rejected by the database: ERROR: value too long", result.errors().get(0).message());
+    }
+
+    private static ByteArrayInputStream stream(String body){
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
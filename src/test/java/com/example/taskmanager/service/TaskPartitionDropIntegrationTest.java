@@ -0,0 +1,131 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskPartitionRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the drop and the patch run in transactions of their own, on two threads
+@SpringBootTest
+@Testcontainers
+public class TaskPartitionDropIntegrationTest {
+
+    private static final YearMonth DROPPED = YearMonth.of(2024, 1);
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test")
+            .withUsername("user")
+            .withPassword("password");
+
+    static {
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskPartitionRepository taskPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void dropPartition_ShouldNotDeadlock_WithAConcurrentPatch() throws Exception {
+        User user = new User();
+        user.setUsername("dropuser");
+        user.setPassword("secret");
+        Long userId = userRepository.save(user).getId();
+
+        taskPartitionRepository.create(DROPPED);
+        jdbcTemplate.update("INSERT INTO tasks (id, user_id, title, description, status, due_date) "
+                + "VALUES (nextval('tasks_seq'), ?, 'Old', 'Old', 0, ?)", userId, Date.valueOf(DROPPED.atDay(15)));
+
+        Task task = new Task();
+        task.setTitle("Live");
+        task.setDescription("Description");
+        task.setDueDate(LocalDate.now().plusDays(3));
+        Task live = taskService.createTask(task, userId);
+
+        // The patching transaction has already read tasks when the drop starts, and patches while the drop waits:
+        // an id-only UPDATE is not pruned, so it needs every partition, the dropped one included
+        CountDownLatch read = new CountDownLatch(1);
+        CompletableFuture<Void> patch = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, live.getId());
+            read.countDown();
+            awaitLockWait();
+            taskService.patchTask(live.getId(), new TaskPatch("Patched", null, null, null, live.getVersion()));
+        }));
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Long> drop = CompletableFuture.supplyAsync(() -> taskService.dropPartition(DROPPED));
+
+        patch.get(30, TimeUnit.SECONDS);
+        assertEquals(1L, drop.get(30, TimeUnit.SECONDS));
+        assertEquals("Patched", jdbcTemplate.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class,
+                live.getId()));
+        assertFalse(taskPartitionRepository.findMonths().contains(DROPPED));
+    }
+
+    private void awaitLockWait(){
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(System.nanoTime() < deadline){
+            Integer waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_locks WHERE NOT granted", Integer.class);
+            if(waiting != null && waiting > 0){
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
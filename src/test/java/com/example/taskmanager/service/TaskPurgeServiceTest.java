@@ -0,0 +1,107 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.PurgeJobStatus;
+import com.example.taskmanager.repository.TaskPartitionRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskPurgeServiceTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2025, 1, 1);
+
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private TaskPartitionRepository taskPartitionRepository;
+    private TaskPurgeService taskPurgeService;
+
+    @BeforeEach
+    void setUp(){
+        taskService = mock(TaskService.class);
+        taskRepository = mock(TaskRepository.class);
+        taskPartitionRepository = mock(TaskPartitionRepository.class);
+        taskPurgeService = new TaskPurgeService(taskService, taskRepository, taskPartitionRepository, new SyncTaskExecutor(),
+                100, Duration.ZERO);
+    }
+
+    @Test
+    void start_ShouldDeleteRangeByRange_UntilMaxId(){
+        when(taskRepository.findMinId()).thenReturn(1L);
+        when(taskRepository.findMaxId()).thenReturn(250L);
+        when(taskRepository.findIdAfterRows(1L, 100)).thenReturn(101L);
+        when(taskRepository.findIdAfterRows(101L, 100)).thenReturn(201L);
+        when(taskRepository.findIdAfterRows(201L, 100)).thenReturn(null);
+        when(taskService.purgeRange(anyLong(), anyLong(), eq(CUTOFF))).thenReturn(10L);
+
+        PurgeJobStatus status = taskPurgeService.start(CUTOFF, "maxime");
+
+        verify(taskService).purgeRange(1L, 101L, CUTOFF);
+        verify(taskService).purgeRange(101L, 201L, CUTOFF);
+        verify(taskService).purgeRange(201L, 251L, CUTOFF);
+        assertEquals(PurgeJobStatus.State.COMPLETED, status.state());
+        assertEquals(30, status.deletedTasks());
+        assertEquals(100, status.percentDone());
+    }
+
+    @Test
+    void start_ShouldDropWholeMonthsBeforeTheCutoff_AndDeleteTheRestByRange(){
+        when(taskPartitionRepository.findMonths()).thenReturn(List.of(
+                YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1)));
+        when(taskService.dropPartition(any())).thenReturn(40L);
+        when(taskRepository.findMinId()).thenReturn(1L);
+        when(taskRepository.findMaxId()).thenReturn(50L);
+        when(taskRepository.findIdAfterRows(1L, 100)).thenReturn(null);
+        when(taskService.purgeRange(1L, 51L, CUTOFF)).thenReturn(5L);
+
+        PurgeJobStatus status = taskPurgeService.start(CUTOFF, "maxime");
+
+        verify(taskService).dropPartition(YearMonth.of(2024, 11));
+        verify(taskService).dropPartition(YearMonth.of(2024, 12));
+        verify(taskService, never()).dropPartition(YearMonth.of(2025, 1));
+        assertEquals(85, status.deletedTasks());
+    }
+
+    @Test
+    void start_ShouldComplete_WhenThereAreNoTasks(){
+        when(taskRepository.findMinId()).thenReturn(null);
+        when(taskRepository.findMaxId()).thenReturn(null);
+
+        PurgeJobStatus status = taskPurgeService.start(CUTOFF, "maxime");
+
+        assertEquals(PurgeJobStatus.State.COMPLETED, status.state());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void find_ShouldOnlyExposeJobsToTheirOwner(){
+        when(taskRepository.findMinId()).thenReturn(null);
+
+        PurgeJobStatus status = taskPurgeService.start(CUTOFF, "maxime");
+
+        assertTrue(taskPurgeService.find(status.id(), "maxime").isPresent());
+        assertTrue(taskPurgeService.find(status.id(), "someone-else").isEmpty());
+        assertTrue(taskPurgeService.cancel(status.id(), "someone-else").isEmpty());
+    }
+
+    @Test
+    void start_ShouldReportFailure_WhenARangeFails(){
+        when(taskRepository.findMinId()).thenReturn(1L);
+        when(taskRepository.findMaxId()).thenReturn(50L);
+        when(taskRepository.findIdAfterRows(1L, 100)).thenReturn(null);
+        when(taskService.purgeRange(anyLong(), anyLong(), eq(CUTOFF))).thenThrow(new RuntimeException("boom"));
+
+        PurgeJobStatus status = taskPurgeService.start(CUTOFF, "maxime");
+
+        assertEquals(PurgeJobStatus.State.FAILED, status.state());
+        assertEquals("boom", status.error());
+    }
+}
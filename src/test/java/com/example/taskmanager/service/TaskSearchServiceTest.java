@@ -0,0 +1,52 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskSearchServiceTest {
+
+    @Test
+    void search_ShouldKeepRankOrder_WhenLoadingSummaries(){
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.searchFullTextIds("repo:*", pageable)).thenReturn(new PageImpl<>(List.of(3L, 1L), pageable, 2));
+        when(taskRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(
+                new TaskSummary(1L, "repo one", null, TaskStatus.TO_BE_DONE, null, 0L),
+                new TaskSummary(3L, "repo three", null, TaskStatus.DONE, null, 0L)));
+
+        Slice<TaskSummary> result = new TaskSearchService(taskRepository).search("repo", pageable, true);
+
+        assertEquals(List.of(3L, 1L), result.map(TaskSummary::id).getContent());
+    }
+
+    @Test
+    void toPrefixQuery_ShouldJoinWordsAsPrefixes(){
+        assertEquals("weekly:* & repo:*", TaskSearchService.toPrefixQuery("Weekly  repo"));
+    }
+
+    @Test
+    void toPrefixQuery_ShouldDropTsqueryOperators(){
+        assertEquals("a:* & b:* & c:*", TaskSearchService.toPrefixQuery("a & b | !c:*"));
+    }
+
+    @Test
+    void toPrefixQuery_ShouldKeepAccentedLetters(){
+        assertEquals("réunion:*", TaskSearchService.toPrefixQuery("Réunion"));
+    }
+
+    @Test
+    void toPrefixQuery_ShouldThrow_WhenNoWords(){
+        assertThrows(IllegalArgumentException.class, () -> TaskSearchService.toPrefixQuery(" !& "));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the counter and list version upserts must run and commit as they do in production
+@SpringBootTest
+@Testcontainers
+public class TaskWriteCacheIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test")
+            .withUsername("user")
+            .withPassword("password");
+
+    static {
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp(){
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createTask_ShouldLeaveCachedUserInPlace(){
+        User user = new User();
+        user.setUsername("cacheduser");
+        user.setPassword("secret");
+        Long userId = userRepository.save(user).getId();
+
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        userRepository.findById(userId);
+        assertTrue(cache.contains(User.class, userId));
+
+        Task task = new Task();
+        task.setTitle("Cached");
+        task.setDescription("Description");
+        task.setDueDate(LocalDate.now().plusDays(3));
+        taskService.createTask(task, userId);
+
+        assertTrue(cache.contains(User.class, userId), "a task write evicted the cached user");
+    }
+}